@@ -4,13 +4,131 @@ window.onload = function() {
     loadTodos();
 };
 
+const PAGE_SIZE = 200;
+const POLL_INTERVAL_MS = 5000;
+
+// Version du serveur jusqu'à laquelle la table est à jour
+let storeVersion = 0;
+// Numéro du chargement en cours : une page d'un chargement remplacé est ignorée
+let loadGeneration = 0;
+let loading = false;
+let pollTimer = null;
+
+// Charge les todos page par page : chaque page est affichée dès sa réception.
+// La version est relevée avant le chargement : les changements concurrents seront rejoués par refreshTodos,
+// qui ne s'exécute pas tant que la dernière page n'est pas arrivée.
 function loadTodos() {
+    const generation = ++loadGeneration;
+    loading = true;
+    fetchChanges(0)
+        .then(changes => {
+            if (generation !== loadGeneration) {
+                return;
+            }
+            storeVersion = changes.version;
+            const tbody = document.getElementById('todoTableBody');
+            tbody.innerHTML = '';
+            loadPage(null, 0, generation);
+        })
+        .catch(error => {
+            console.error('Erreur lors du chargement des todos:', error);
+            alert('Erreur: Impossible de charger les todos. Vérifiez que le serveur est démarré.');
+            if (generation === loadGeneration) {
+                endLoad();
+            }
+        });
+}
+
+// Applique uniquement les todos modifiés depuis storeVersion, ou recharge tout si le serveur le demande
+function refreshTodos() {
+    if (loading) {
+        return;
+    }
+    fetchChanges(storeVersion)
+        .then(changes => {
+            if (loading) {
+                return;
+            }
+            if (changes.resync) {
+                loadTodos();
+                return;
+            }
+            storeVersion = changes.version;
+            applyChanges(changes);
+        })
+        .catch(error => console.error('Erreur lors de la mise à jour des todos:', error));
+}
+
+function fetchChanges(version) {
     const soapEnvelope = `<?xml version="1.0" encoding="UTF-8"?>
         <soapenv:Envelope xmlns:soapenv="http://schemas.xmlsoap.org/soap/envelope/" 
                           xmlns:tns="http://endpoint.todo.example.com/">
             <soapenv:Header/>
             <soapenv:Body>
-                <tns:getAll/>
+                <tns:getChangesSince>
+                    <version>${version}</version>
+                </tns:getChangesSince>
+            </soapenv:Body>
+        </soapenv:Envelope>`;
+
+    return fetch(SOAP_URL, {
+        method: 'POST',
+        headers: {
+            'Content-Type': 'text/xml;charset=UTF-8'
+        },
+        body: soapEnvelope
+    })
+    .then(response => response.text())
+    .then(xml => {
+        const xmlDoc = new DOMParser().parseFromString(xml, 'text/xml');
+        return {
+            version: xmlDoc.querySelector('return > version')?.textContent ?? '0',
+            resync: xmlDoc.querySelector('return > resync')?.textContent === 'true',
+            todos: parseTodoElements(xmlDoc.querySelectorAll('return > todo')),
+            deletedIds: Array.from(xmlDoc.querySelectorAll('return > deletedId')).map(e => e.textContent)
+        };
+    });
+}
+
+function applyChanges(changes) {
+    const tbody = document.getElementById('todoTableBody');
+    changes.deletedIds.forEach(id => tbody.querySelector(`tr[data-id="${id}"]`)?.remove());
+    changes.todos.forEach(todo => {
+        const row = createTodoRow(todo);
+        const existing = tbody.querySelector(`tr[data-id="${todo.id}"]`);
+        if (existing) {
+            existing.replaceWith(row);
+            return;
+        }
+        tbody.querySelector('tr:not([data-id])')?.remove();
+        const next = Array.from(tbody.querySelectorAll('tr[data-id]'))
+            .find(other => Number(other.dataset.id) > Number(todo.id));
+        tbody.insertBefore(row, next ?? null);
+    });
+    if (!tbody.querySelector('tr')) {
+        displayTodos([]);
+    }
+}
+
+// Chargement terminé ou abandonné : rattrape les changements survenus entre-temps, puis interroge périodiquement
+function endLoad() {
+    loading = false;
+    if (pollTimer === null) {
+        pollTimer = setInterval(refreshTodos, POLL_INTERVAL_MS);
+    }
+    refreshTodos();
+}
+
+function loadPage(pageToken, loaded, generation) {
+    const soapEnvelope = `<?xml version="1.0" encoding="UTF-8"?>
+        <soapenv:Envelope xmlns:soapenv="http://schemas.xmlsoap.org/soap/envelope/" 
+                          xmlns:tns="http://endpoint.todo.example.com/">
+            <soapenv:Header/>
+            <soapenv:Body>
+                <tns:getPage>
+                    <pageSize>${PAGE_SIZE}</pageSize>
+                    ${pageToken ? `<pageToken>${pageToken}</pageToken>` : ''}
+                </tns:getPage>
             </soapenv:Body>
         </soapenv:Envelope>`;
 
@@ -23,20 +141,39 @@ function loadTodos() {
     })
     .then(response => response.text())
     .then(xml => {
-        const todos = parseTodosFromXML(xml);
-        displayTodos(todos);
+        if (generation !== loadGeneration) {
+            return;
+        }
+        const page = parsePageFromXML(xml);
+        appendTodos(page.todos);
+        const total = loaded + page.todos.length;
+        if (page.nextToken) {
+            loadPage(page.nextToken, total, generation);
+            return;
+        }
+        if (total === 0) {
+            displayTodos([]);
+        }
+        endLoad();
     })
     .catch(error => {
         console.error('Erreur lors du chargement des todos:', error);
         alert('Erreur: Impossible de charger les todos. Vérifiez que le serveur est démarré.');
+        if (generation === loadGeneration) {
+            endLoad();
+        }
     });
 }
 
-function parseTodosFromXML(xml) {
+function parsePageFromXML(xml) {
     const parser = new DOMParser();
     const xmlDoc = parser.parseFromString(xml, 'text/xml');
-    const todoElements = xmlDoc.querySelectorAll('return');
-    
+    const todos = parseTodoElements(xmlDoc.querySelectorAll('return > todo'));
+    const nextToken = xmlDoc.querySelector('return > nextToken')?.textContent;
+    return { todos, nextToken };
+}
+
+function parseTodoElements(todoElements) {
     const todos = [];
     todoElements.forEach(element => {
         const id = element.querySelector('id')?.textContent;
@@ -60,21 +197,38 @@ function displayTodos(todos) {
         return;
     }
     
+    appendTodos(todos);
+}
+
+// Une ligne déjà présente pour le même id est remplacée, jamais dupliquée
+function appendTodos(todos) {
+    const tbody = document.getElementById('todoTableBody');
     todos.forEach(todo => {
-        const row = document.createElement('tr');
-        row.innerHTML = `
-            <td>${todo.id}</td>
-            <td>${todo.title}</td>
-            <td>${todo.completed ? '✅' : '❌'}</td>
-            <td>
-                <button class="btn btn-warning btn-sm" onclick="openEditModal(${todo.id}, '${todo.title.replace(/'/g, "\\'")}', ${todo.completed})">Mod</button>
-                <button class="btn btn-danger btn-sm" onclick="deleteTodo(${todo.id})">Sup</button>
-            </td>
-        `;
-        tbody.appendChild(row);
+        const row = createTodoRow(todo);
+        const existing = tbody.querySelector(`tr[data-id="${todo.id}"]`);
+        if (existing) {
+            existing.replaceWith(row);
+        } else {
+            tbody.appendChild(row);
+        }
     });
 }
 
+function createTodoRow(todo) {
+    const row = document.createElement('tr');
+    row.dataset.id = todo.id;
+    row.innerHTML = `
+        <td>${todo.id}</td>
+        <td>${todo.title}</td>
+        <td>${todo.completed ? '✅' : '❌'}</td>
+        <td>
+            <button class="btn btn-warning btn-sm" onclick="openEditModal(${todo.id}, '${todo.title.replace(/'/g, "\\'")}', ${todo.completed})">Mod</button>
+            <button class="btn btn-danger btn-sm" onclick="deleteTodo(${todo.id})">Sup</button>
+        </td>
+    `;
+    return row;
+}
+
 function openAddModal() {
     document.getElementById('modalTitle').textContent = 'Ajouter un Todo';
     document.getElementById('todoId').value = '';
@@ -145,7 +299,7 @@ function saveTodo() {
     .then(() => {
         const modal = bootstrap.Modal.getInstance(document.getElementById('todoModal'));
         modal.hide();
-        loadTodos();
+        refreshTodos();
     })
     .catch(error => {
         console.error('Erreur lors de la sauvegarde:', error);
@@ -178,7 +332,7 @@ function deleteTodo(id) {
     })
     .then(response => response.text())
     .then(() => {
-        loadTodos();
+        refreshTodos();
     })
     .catch(error => {
         console.error('Erreur lors de la suppression:', error);
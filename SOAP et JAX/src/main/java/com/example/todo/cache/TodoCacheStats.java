@@ -0,0 +1,13 @@
+package com.example.todo.cache;
+
+/**
+ * Compteurs du cache de réponses SOAP, exposés sur GET /cache/stats.
+ */
+public record TodoCacheStats(long hits, long misses, long stores, long evictions, long invalidations,
+                             int entries, long bytes, long maxBytes) {
+
+    public double hitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.todo.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Réponses SOAP déjà sérialisées, indexées par opération et requête, chacune étiquetée par la
+ * version du store au moment de son calcul. Une entrée n'est servie que tant que la version
+ * n'a pas bougé : toute écriture invalide donc l'ensemble du cache sans le parcourir.
+ * Éviction LRU dès que la taille cumulée des corps dépasse maxBytes.
+ */
+@Component
+public class TodoResponseCache {
+
+    /**
+     * Réponse mémorisée : statut 200 implicite, en-têtes de contenu et corps tel qu'envoyé.
+     */
+    public record Entry(long version, String contentType, String contentEncoding, byte[] body) {
+    }
+
+    @Value("${todo.cache.max-bytes:16777216}")
+    private long maxBytes;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long stores;
+    private long evictions;
+    private long invalidations;
+
+    public TodoResponseCache() {
+    }
+
+    TodoResponseCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    private static long weight(String key, Entry entry) {
+        return key.length() + entry.body().length;
+    }
+
+    /**
+     * Renvoie l'entrée si elle a été calculée à la version courante, sinon null (et l'oublie).
+     */
+    public synchronized Entry get(String key, long version) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        if (entry.version() != version) {
+            entries.remove(key);
+            bytes -= weight(key, entry);
+            invalidations++;
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry;
+    }
+
+    /**
+     * Taille au-delà de laquelle une réponse n'est pas mise en cache : une réponse énorme chasserait tout le reste.
+     */
+    public long maxEntryBytes() {
+        return maxBytes / 4;
+    }
+
+    public synchronized void put(String key, Entry entry) {
+        long weight = weight(key, entry);
+        if (weight > maxEntryBytes()) {
+            return;
+        }
+        Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            bytes -= weight(key, previous);
+        }
+        bytes += weight;
+        stores++;
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Entry> evicted = eldest.next();
+            eldest.remove();
+            bytes -= weight(evicted.getKey(), evicted.getValue());
+            evictions++;
+        }
+    }
+
+    public synchronized TodoCacheStats stats() {
+        return new TodoCacheStats(hits, misses, stores, evictions, invalidations, entries.size(), bytes, maxBytes);
+    }
+}
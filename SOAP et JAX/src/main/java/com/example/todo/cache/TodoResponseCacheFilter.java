@@ -0,0 +1,317 @@
+package com.example.todo.cache;
+
+import com.example.todo.service.TodoService;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.SequenceInputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+/**
+ * Cache des réponses des opérations de lecture de /ws/todo, devant le servlet CXF : en cas de
+ * succès, le corps déjà sérialisé (éventuellement compressé ou en Fast Infoset) est renvoyé sans
+ * passer ni par TodoService ni par JAXB. La clé couvre l'opération, la requête complète et les
+ * en-têtes qui changent la forme de la réponse ; la validité est vérifiée par la version du store.
+ *
+ * Seuls les MAX_REQUEST_BYTES premiers octets de la requête sont lus par le filtre ; au-delà (ou
+ * pour une requête chunked plus longue), CXF reçoit ces octets suivis du reste du flux d'origine.
+ * La réponse n'est gardée en mémoire que tant qu'elle peut entrer dans le cache : passé cette
+ * taille, elle part directement au client et n'est pas mise en cache.
+ */
+@Component
+@Order(10)
+public class TodoResponseCacheFilter implements Filter {
+
+    private static final Set<String> CACHEABLE = Set.of("getAll", "getById", "getPage", "getByStatus",
+            "getStats", "searchTodos", "getChangesSince");
+    // Au-delà, la requête n'est pas mise en cache (et n'est pas lue par le filtre)
+    private static final int MAX_REQUEST_BYTES = 16 * 1024;
+
+    private static final XMLInputFactory XML_INPUT = XMLInputFactory.newFactory();
+
+    static {
+        XML_INPUT.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        XML_INPUT.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    @Autowired
+    private TodoResponseCache cache;
+
+    @Autowired
+    private TodoService todoService;
+
+    @Value("${todo.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cxf.path:/services}")
+    private String cxfPath;
+
+    @Override
+    public void doFilter(ServletRequest req, ServletResponse res, FilterChain chain)
+            throws IOException, ServletException {
+        HttpServletRequest request = (HttpServletRequest) req;
+        HttpServletResponse response = (HttpServletResponse) res;
+        String contentType = request.getContentType();
+        if (!enabled || !"POST".equals(request.getMethod())
+                || !request.getRequestURI().equals(request.getContextPath() + cxfPath + "/todo")
+                || contentType == null || !(contentType.contains("xml") && !contentType.contains("fastinfoset"))
+                || request.getContentLengthLong() > MAX_REQUEST_BYTES) {
+            chain.doFilter(req, res);
+            return;
+        }
+        // Une requête chunked annonce une longueur de -1 : sa taille n'est connue qu'à la lecture
+        InputStream in = request.getInputStream();
+        byte[] body = in.readNBytes(MAX_REQUEST_BYTES + 1);
+        boolean complete = body.length <= MAX_REQUEST_BYTES;
+        HttpServletRequest replay = new CachedBodyRequest(request, body, complete ? null : in);
+        String operation = complete ? operationOf(body) : null;
+        if (operation == null || !CACHEABLE.contains(operation)) {
+            chain.doFilter(replay, res);
+            return;
+        }
+
+        String key = operation + '\n' + contentType + '\n' + request.getHeader("SOAPAction") + '\n'
+                + request.getHeader("Accept") + '\n' + request.getHeader("Accept-Encoding") + '\n'
+                + new String(body, StandardCharsets.ISO_8859_1);
+        long version = todoService.version();
+        TodoResponseCache.Entry hit = cache.get(key, version);
+        if (hit != null) {
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType(hit.contentType());
+            if (hit.contentEncoding() != null) {
+                response.setHeader("Content-Encoding", hit.contentEncoding());
+            }
+            response.setHeader("X-Todo-Cache", "HIT");
+            response.setContentLength(hit.body().length);
+            response.getOutputStream().write(hit.body());
+            return;
+        }
+
+        response.setHeader("X-Todo-Cache", "MISS");
+        CapturingResponse capture = new CapturingResponse(response, cache.maxEntryBytes() - key.length());
+        chain.doFilter(replay, capture);
+        if (request.isAsyncStarted()) {
+            // Réponse suspendue : elle sera écrite plus tard, directement, sans passer par ce filtre
+            return;
+        }
+        capture.finish();
+        if (capture.passedThrough()) {
+            return;
+        }
+        byte[] out = capture.body();
+        // Mémorisée seulement si aucune écriture n'a eu lieu pendant le calcul
+        if (capture.getStatus() == HttpServletResponse.SC_OK && todoService.version() == version) {
+            cache.put(key, new TodoResponseCache.Entry(version, capture.getContentType(),
+                    capture.getHeader("Content-Encoding"), out));
+        }
+        response.setContentLength(out.length);
+        response.getOutputStream().write(out);
+    }
+
+    // Nom local du premier élément du Body SOAP, ou null si la requête n'est pas lisible
+    private static String operationOf(byte[] body) {
+        try {
+            XMLStreamReader reader = XML_INPUT.createXMLStreamReader(new ByteArrayInputStream(body));
+            try {
+                boolean inBody = false;
+                while (reader.hasNext()) {
+                    if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+                        if (inBody) {
+                            return reader.getLocalName();
+                        }
+                        inBody = "Body".equals(reader.getLocalName());
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            // requête invalide : CXF renverra l'erreur
+        }
+        return null;
+    }
+
+    // Rejoue les octets lus par le filtre, puis le reste du flux d'origine s'il n'a pas été lu en entier
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+        private final InputStream rest;
+        private boolean finished;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body, InputStream rest) {
+            super(request);
+            this.body = body;
+            this.rest = rest;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream buffered = new ByteArrayInputStream(body);
+            InputStream in = rest == null ? buffered : new SequenceInputStream(buffered, rest);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return finished;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() throws IOException {
+                    int b = in.read();
+                    finished = b < 0;
+                    return b;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    int n = in.read(b, off, len);
+                    finished = n < 0;
+                    return n;
+                }
+            };
+        }
+
+        @Override
+        public int getContentLength() {
+            return rest == null ? body.length : super.getContentLength();
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return rest == null ? body.length : super.getContentLengthLong();
+        }
+    }
+
+    // Garde le corps en mémoire jusqu'à limit octets, puis bascule le tout vers la réponse réelle ;
+    // les en-têtes et le statut sont transmis à la réponse réelle
+    private static final class CapturingResponse extends HttpServletResponseWrapper {
+
+        private final long limit;
+        private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private OutputStream target;
+        private ServletOutputStream stream;
+        private PrintWriter writer;
+
+        CapturingResponse(HttpServletResponse response, long limit) {
+            super(response);
+            this.limit = limit;
+        }
+
+        void finish() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+        }
+
+        boolean passedThrough() {
+            return target != null;
+        }
+
+        byte[] body() {
+            return buffer.toByteArray();
+        }
+
+        private void write(byte[] b, int off, int len) throws IOException {
+            if (target == null && buffer.size() + (long) len > limit) {
+                // Trop grande pour le cache : ce qui a été gardé part au client, la suite aussi
+                target = getResponse().getOutputStream();
+                buffer.writeTo(target);
+                buffer = null;
+            }
+            if (target != null) {
+                target.write(b, off, len);
+            } else {
+                buffer.write(b, off, len);
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            if (stream == null) {
+                stream = new ServletOutputStream() {
+                    @Override
+                    public boolean isReady() {
+                        return true;
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener listener) {
+                        throw new UnsupportedOperationException();
+                    }
+
+                    @Override
+                    public void write(int b) throws IOException {
+                        CapturingResponse.this.write(new byte[] {(byte) b}, 0, 1);
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        CapturingResponse.this.write(b, off, len);
+                    }
+                };
+            }
+            return stream;
+        }
+
+        @Override
+        public PrintWriter getWriter() {
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), Charset.forName(getCharacterEncoding())));
+            }
+            return writer;
+        }
+
+        // La longueur est fixée une fois le corps complet connu (ou pas du tout s'il est transmis au fil de l'eau)
+        @Override
+        public void setContentLength(int len) {
+        }
+
+        @Override
+        public void setContentLengthLong(long len) {
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (target != null) {
+                getResponse().flushBuffer();
+            }
+        }
+    }
+}
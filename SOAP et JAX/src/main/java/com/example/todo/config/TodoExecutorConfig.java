@@ -0,0 +1,39 @@
+package com.example.todo.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class TodoExecutorConfig {
+
+    // Taille du pool de repli quand les threads virtuels ne sont pas disponibles
+    @Value("${todo.ws.executor.pool-size:64}")
+    private int poolSize;
+
+    /**
+     * Exécuteur des appels SOAP suspendus : un thread virtuel par tâche si la JVM le permet (Java 21+),
+     * sinon un pool fixe de threads démons.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService todoExecutor() {
+        try {
+            ExecutorService executor = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            System.out.println("Exécuteur SOAP : threads virtuels");
+            return executor;
+        } catch (ReflectiveOperationException e) {
+            System.out.println("Exécuteur SOAP : pool de " + poolSize + " threads");
+            AtomicInteger count = new AtomicInteger();
+            return Executors.newFixedThreadPool(poolSize, task -> {
+                Thread thread = new Thread(task, "todo-ws-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
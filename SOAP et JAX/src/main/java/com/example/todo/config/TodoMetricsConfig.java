@@ -0,0 +1,34 @@
+package com.example.todo.config;
+
+import com.example.todo.cache.TodoResponseCache;
+import com.example.todo.service.TodoService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Jauges du store et compteurs du cache de réponses, lus à chaque collecte sur les compteurs
+ * existants (compteurs du trie, TodoCacheStats) : rien n'est ajouté au chemin des requêtes.
+ * Les réponses servies par le cache ne passent pas par CXF : elles ne sont comptées qu'ici.
+ */
+@Configuration
+public class TodoMetricsConfig {
+
+    @Bean
+    public MeterBinder todoMeters(TodoService todoService, TodoResponseCache cache) {
+        return registry -> {
+            Gauge.builder("todo.store.items", todoService, service -> service.stats().getTotal())
+                    .description("Nombre de todos").register(registry);
+            Gauge.builder("todo.store.items.completed", todoService, service -> service.stats().getCompleted())
+                    .description("Nombre de todos terminés").register(registry);
+            FunctionCounter.builder("todo.cache.requests", cache, c -> c.stats().hits())
+                    .description("Lectures SOAP passées par le cache de réponses").tag("result", "hit").register(registry);
+            FunctionCounter.builder("todo.cache.requests", cache, c -> c.stats().misses())
+                    .description("Lectures SOAP passées par le cache de réponses").tag("result", "miss").register(registry);
+            Gauge.builder("todo.cache.size", cache, c -> c.stats().bytes())
+                    .description("Taille des réponses en cache").baseUnit("bytes").register(registry);
+        };
+    }
+}
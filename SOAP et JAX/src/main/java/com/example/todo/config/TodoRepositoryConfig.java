@@ -0,0 +1,77 @@
+package com.example.todo.config;
+
+import com.example.todo.repository.BinaryTodoRepository;
+import com.example.todo.repository.FileTodoRepository;
+import com.example.todo.repository.InMemoryTodoRepository;
+import com.example.todo.repository.JdbcTodoRepository;
+import com.example.todo.repository.SegmentedTodoRepository;
+import com.example.todo.repository.TodoRepository;
+import com.example.todo.repository.XmlTodoRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Paths;
+
+@Configuration
+public class TodoRepositoryConfig {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${todo.repository.type:xml}")
+    private String type;
+
+    @Value("${todo.store.path:src/main/resources/todos.xml}")
+    private String storePath;
+
+    @Value("${todo.store.compact-interval-ms:60000}")
+    private long compactIntervalMs;
+
+    @Value("${todo.store.compact-threshold:10000}")
+    private int compactThreshold;
+
+    @Value("${todo.store.tombstone-ratio:0.25}")
+    private double tombstoneRatio;
+
+    @Value("${todo.store.segment-size:4096}")
+    private int segmentSize;
+
+    @Value("${todo.journal.group-window-ms:2}")
+    private long groupWindowMs;
+
+    @Value("${todo.journal.group-size:64}")
+    private int groupSize;
+
+    @Value("${todo.repository.jdbc.url:jdbc:h2:file:./data/todos;DB_CLOSE_ON_EXIT=FALSE}")
+    private String jdbcUrl;
+
+    @Value("${todo.repository.jdbc.username:sa}")
+    private String jdbcUsername;
+
+    @Value("${todo.repository.jdbc.password:}")
+    private String jdbcPassword;
+
+    // Le cycle de vie (open/close) est piloté par TodoService
+    @Bean(destroyMethod = "")
+    public TodoRepository todoRepository() {
+        TodoRepository repository = switch (type) {
+            case "xml" -> new XmlTodoRepository(Paths.get(storePath),
+                    compactIntervalMs, compactThreshold, tombstoneRatio, groupWindowMs, groupSize);
+            case "binary" -> new BinaryTodoRepository(Paths.get(storePath),
+                    compactIntervalMs, compactThreshold, tombstoneRatio, groupWindowMs, groupSize);
+            case "segmented" -> new SegmentedTodoRepository(Paths.get(storePath), segmentSize,
+                    compactIntervalMs, compactThreshold, tombstoneRatio, groupWindowMs, groupSize);
+            case "jdbc" -> new JdbcTodoRepository(jdbcUrl, jdbcUsername, jdbcPassword);
+            case "memory" -> new InMemoryTodoRepository();
+            default -> throw new IllegalStateException("todo.repository.type inconnu : " + type);
+        };
+        if (repository instanceof FileTodoRepository file) {
+            file.bindMetrics(meterRegistry);
+        }
+        System.out.println("Stockage des todos : " + type);
+        return repository;
+    }
+}
@@ -1,11 +1,18 @@
 package com.example.todo.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.cxf.Bus;
+import org.apache.cxf.feature.FastInfosetFeature;
 import org.apache.cxf.jaxws.EndpointImpl;
+import org.apache.cxf.metrics.MetricsFeature;
+import org.apache.cxf.metrics.MetricsProvider;
+import org.apache.cxf.transport.common.gzip.GZIPFeature;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import com.example.todo.endpoint.TodoEndpoint;
+import com.example.todo.endpoint.TodoEnvelopeSizeFeature;
 
 @Configuration
 public class WebServiceConfig {
@@ -13,9 +20,34 @@ public class WebServiceConfig {
     @Autowired
     private Bus bus;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Fourni par l'auto-configuration CXF/Micrometer : timer cxf.server.requests par opération
+    @Autowired
+    private MetricsProvider metricsProvider;
+
+    // Fast Infoset négocié : seuls les clients envoyant "Accept: application/fastinfoset" le reçoivent
+    @Value("${todo.ws.fastinfoset:true}")
+    private boolean fastInfoset;
+
+    // Compression GZIP si le client envoie "Accept-Encoding: gzip", au-delà de ce nombre d'octets (-1 : désactivée)
+    @Value("${todo.ws.gzip-threshold:1024}")
+    private int gzipThreshold;
+
     @Bean
     public EndpointImpl endpoint(TodoEndpoint todoEndpoint) {
         EndpointImpl endpoint = new EndpointImpl(bus, todoEndpoint);
+        if (fastInfoset) {
+            endpoint.getFeatures().add(new FastInfosetFeature());
+        }
+        if (gzipThreshold >= 0) {
+            GZIPFeature gzip = new GZIPFeature();
+            gzip.setThreshold(gzipThreshold);
+            endpoint.getFeatures().add(gzip);
+        }
+        endpoint.getFeatures().add(new MetricsFeature(metricsProvider));
+        endpoint.getFeatures().add(new TodoEnvelopeSizeFeature(meterRegistry));
         endpoint.publish("/todo");
         System.out.println("SOAP service disponible sur http://localhost:8080/ws/todo?wsdl");
         return endpoint;
@@ -0,0 +1,19 @@
+package com.example.todo.endpoint;
+
+import com.example.todo.cache.TodoCacheStats;
+import com.example.todo.cache.TodoResponseCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+public class CacheStatsController {
+
+    @Autowired
+    private TodoResponseCache cache;
+
+    @GetMapping("/cache/stats")
+    public TodoCacheStats stats() {
+        return cache.stats();
+    }
+}
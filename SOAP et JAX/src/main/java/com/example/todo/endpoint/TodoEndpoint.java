@@ -1,14 +1,28 @@
 package com.example.todo.endpoint;
 
 import com.example.todo.model.Todo;
+import com.example.todo.model.TodoChanges;
+import com.example.todo.model.TodoPage;
+import com.example.todo.model.TodoResult;
+import com.example.todo.model.TodoStats;
 import com.example.todo.service.TodoService;
+import jakarta.annotation.Resource;
 import jakarta.jws.WebMethod;
 import jakarta.jws.WebParam;
 import jakarta.jws.WebService;
+import jakarta.xml.ws.WebServiceContext;
+import org.apache.cxf.continuations.Continuation;
+import org.apache.cxf.continuations.ContinuationProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.function.Supplier;
 
 @WebService(serviceName = "TodoService")
 @Component
@@ -17,9 +31,106 @@ public class TodoEndpoint {
     @Autowired
     private TodoService todoService;
 
+    @Autowired
+    private ExecutorService todoExecutor;
+
+    @Resource
+    private WebServiceContext context;
+
+    // Délai au-delà duquel un appel suspendu est abandonné
+    @Value("${todo.ws.async-timeout-ms:30000}")
+    private long asyncTimeoutMs;
+
+    /**
+     * Réservé aux écritures, qui attendent la durabilité du journal : les lectures se font sans
+     * verrou en mémoire et sont exécutées directement (elles peuvent ainsi être mises en cache).
+     *
+     * Exécute le travail sur l'exécuteur dédié en suspendant la requête (continuation CXF) :
+     * le thread du conteneur est rendu pendant le travail, puis CXF rappelle la méthode
+     * une seconde fois pour récupérer le résultat. Sans continuation disponible, exécution directe.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T async(Supplier<T> work) {
+        ContinuationProvider provider = context == null ? null
+                : (ContinuationProvider) context.getMessageContext().get(ContinuationProvider.class.getName());
+        Continuation continuation = provider == null ? null : provider.getContinuation();
+        if (continuation == null) {
+            return work.get();
+        }
+        synchronized (continuation) {
+            if (continuation.isNew()) {
+                FutureTask<T> task = new FutureTask<>(work::get) {
+                    @Override
+                    protected void done() {
+                        synchronized (continuation) {
+                            continuation.resume();
+                        }
+                    }
+                };
+                continuation.setObject(task);
+                continuation.suspend(asyncTimeoutMs);
+                todoExecutor.execute(task);
+                return null;
+            }
+            FutureTask<T> task = (FutureTask<T>) continuation.getObject();
+            if (!task.isDone()) {
+                // Sans interruption : une écriture déjà commencée est publiée et journalisée jusqu'au
+                // bout, seule une tâche pas encore démarrée est abandonnée. Le résultat est donc inconnu.
+                task.cancel(false);
+                throw new IllegalStateException("Délai de traitement dépassé : l'écriture a pu être appliquée, "
+                        + "relire les todos pour connaître son résultat");
+            }
+            try {
+                return task.get();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw new IllegalStateException(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    // Vue sans copie : JAXB crée et sérialise les todos un par un
     @WebMethod
     public List<Todo> getAll() {
-        return todoService.findAll();
+        return todoService.viewAll();
+    }
+
+    @WebMethod
+    public TodoPage getPage(
+            @WebParam(name = "pageSize") int pageSize,
+            @WebParam(name = "pageToken") String pageToken,
+            @WebParam(name = "isCompleted") Boolean isCompleted) {
+        return todoService.findPage(pageSize, pageToken, isCompleted);
+    }
+
+    @WebMethod
+    public TodoPage getByStatus(
+            @WebParam(name = "isCompleted") boolean isCompleted,
+            @WebParam(name = "pageSize") int pageSize,
+            @WebParam(name = "pageToken") String pageToken) {
+        return todoService.findPage(pageSize, pageToken, isCompleted);
+    }
+
+    @WebMethod
+    public TodoStats getStats() {
+        return todoService.stats();
+    }
+
+    @WebMethod
+    public List<Todo> searchTodos(
+            @WebParam(name = "query") String query,
+            @WebParam(name = "limit") int limit) {
+        return todoService.search(query, limit);
+    }
+
+    @WebMethod
+    public TodoChanges getChangesSince(@WebParam(name = "version") long version) {
+        return todoService.changesSince(version);
     }
 
     @WebMethod
@@ -34,7 +145,7 @@ public class TodoEndpoint {
         Todo todo = new Todo();
         todo.setTitle(title);
         todo.setCompleted(isCompleted);
-        return todoService.add(todo);
+        return async(() -> todoService.add(todo));
     }
 
     @WebMethod
@@ -43,11 +154,29 @@ public class TodoEndpoint {
             @WebParam(name = "title") String title,
             @WebParam(name = "isCompleted") boolean isCompleted) {
         Todo todo = new Todo(id, title, isCompleted);
-        return todoService.update(todo);
+        return async(() -> todoService.update(todo));
     }
 
     @WebMethod
     public String deleteTodo(@WebParam(name = "id") int id) {
-        return todoService.delete(id);
+        return async(() -> todoService.delete(id));
+    }
+
+    @WebMethod
+    public List<TodoResult> addTodos(@WebParam(name = "todo") List<Todo> todos) {
+        List<Todo> batch = todos != null ? todos : new ArrayList<>();
+        return async(() -> todoService.addAll(batch));
+    }
+
+    @WebMethod
+    public List<TodoResult> updateTodos(@WebParam(name = "todo") List<Todo> todos) {
+        List<Todo> batch = todos != null ? todos : new ArrayList<>();
+        return async(() -> todoService.updateAll(batch));
+    }
+
+    @WebMethod
+    public List<TodoResult> deleteTodos(@WebParam(name = "id") List<Integer> ids) {
+        List<Integer> batch = ids != null ? ids : new ArrayList<>();
+        return async(() -> todoService.deleteAll(batch));
     }
 }
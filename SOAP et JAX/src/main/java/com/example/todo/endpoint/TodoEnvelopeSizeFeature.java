@@ -0,0 +1,157 @@
+package com.example.todo.endpoint;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.cxf.Bus;
+import org.apache.cxf.feature.AbstractFeature;
+import org.apache.cxf.interceptor.InterceptorProvider;
+import org.apache.cxf.interceptor.FIStaxOutInterceptor;
+import org.apache.cxf.interceptor.StaxOutInterceptor;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+import org.apache.cxf.service.model.BindingOperationInfo;
+import org.apache.cxf.transport.common.gzip.GZIPInInterceptor;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Taille des enveloppes reçues et envoyées par opération (todo.ws.envelope.size, étiquettes
+ * direction et operation), comptée sur les octets SOAP eux-mêmes : après décompression GZIP
+ * à l'entrée, avant compression à la sortie. Les deux tailles sont enregistrées à la fermeture
+ * de la réponse, une fois l'opération connue, y compris pour les fautes.
+ */
+public class TodoEnvelopeSizeFeature extends AbstractFeature {
+
+    private final MeterRegistry registry;
+
+    public TodoEnvelopeSizeFeature(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    protected void initializeProvider(InterceptorProvider provider, Bus bus) {
+        provider.getInInterceptors().add(new CountIn());
+        CountOut out = new CountOut();
+        provider.getOutInterceptors().add(out);
+        provider.getOutFaultInterceptors().add(out);
+    }
+
+    private void record(Exchange exchange, long in, long out) {
+        BindingOperationInfo operation = exchange.getBindingOperationInfo();
+        String name = operation == null ? "unknown" : operation.getName().getLocalPart();
+        summary("in", name).record(in);
+        summary("out", name).record(out);
+    }
+
+    private DistributionSummary summary(String direction, String operation) {
+        return DistributionSummary.builder("todo.ws.envelope.size")
+                .description("Taille des enveloppes SOAP")
+                .baseUnit("bytes")
+                .tag("direction", direction)
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private static final class CountIn extends AbstractPhaseInterceptor<Message> {
+
+        CountIn() {
+            super(Phase.RECEIVE);
+            addAfter(GZIPInInterceptor.class.getName());
+        }
+
+        @Override
+        public void handleMessage(Message message) {
+            InputStream in = message.getContent(InputStream.class);
+            if (in != null) {
+                CountingInputStream counting = new CountingInputStream(in);
+                message.setContent(InputStream.class, counting);
+                message.getExchange().put(CountingInputStream.class, counting);
+            }
+        }
+    }
+
+    private final class CountOut extends AbstractPhaseInterceptor<Message> {
+
+        CountOut() {
+            super(Phase.PRE_STREAM);
+            addBefore(StaxOutInterceptor.class.getName());
+            addBefore(FIStaxOutInterceptor.class.getName());
+        }
+
+        @Override
+        public void handleMessage(Message message) {
+            OutputStream out = message.getContent(OutputStream.class);
+            if (out != null) {
+                message.setContent(OutputStream.class, new CountingOutputStream(out, message.getExchange()));
+            }
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+
+        long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+    }
+
+    private final class CountingOutputStream extends FilterOutputStream {
+
+        private final Exchange exchange;
+        private long count;
+        private boolean recorded;
+
+        CountingOutputStream(OutputStream out, Exchange exchange) {
+            super(out);
+            this.exchange = exchange;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!recorded) {
+                recorded = true;
+                CountingInputStream in = exchange.get(CountingInputStream.class);
+                record(exchange, in == null ? 0 : in.count, count);
+            }
+            super.close();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.todo.endpoint;
+
+import com.example.todo.model.Todo;
+import com.example.todo.model.TodoChanges;
+import com.example.todo.model.TodoPage;
+import com.example.todo.service.TodoService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.List;
+
+/**
+ * API REST/JSON sur le même TodoService que l'endpoint SOAP, sans enveloppe ni XML à construire
+ * côté client. Les lectures portent un ETag égal à la version du store : tant qu'aucune écriture
+ * n'a eu lieu, un If-None-Match correspondant reçoit 304 sans que rien ne soit lu ni sérialisé.
+ */
+@RestController
+@RequestMapping("/api/todos")
+public class TodoRestController {
+
+    @Autowired
+    private TodoService todoService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Posé sur la réponse par checkNotModified. La version est lue avant les données :
+    // le contenu renvoyé est au moins aussi récent que l'ETag
+    private static String etag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    // La réponse de /changes dépend aussi de since : un ETag relevé pour une autre valeur ne doit pas valider
+    private static String etag(long version, long since) {
+        return "\"" + version + "-" + since + "\"";
+    }
+
+    /**
+     * Tous les todos, écrits en flux par id croissant depuis la version courante du store.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> list(WebRequest request) {
+        String etag = etag(todoService.version());
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        Iterable<Todo> todos = todoService.iterateAll();
+        StreamingResponseBody body = out -> {
+            try (OutputStream buffered = new BufferedOutputStream(out, 64 * 1024);
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(buffered)) {
+                generator.writeStartArray();
+                for (Todo todo : todos) {
+                    generator.writeStartObject();
+                    generator.writeNumberField("id", todo.getId());
+                    generator.writeStringField("title", todo.getTitle());
+                    generator.writeBooleanField("completed", todo.isCompleted());
+                    generator.writeEndObject();
+                }
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Todo> get(@PathVariable int id, WebRequest request) {
+        String etag = etag(todoService.version());
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        Todo todo = todoService.findById(id);
+        if (todo == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Todo non trouvé");
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(todo);
+    }
+
+    /**
+     * Même pagination que getPage : nextToken est à renvoyer en token pour la page suivante.
+     */
+    @GetMapping("/page")
+    public ResponseEntity<TodoPage> page(@RequestParam(defaultValue = "0") int size,
+                                         @RequestParam(required = false) String token,
+                                         @RequestParam(required = false) Boolean completed,
+                                         WebRequest request) {
+        String etag = etag(todoService.version());
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        TodoPage page;
+        try {
+            page = todoService.findPage(size, token, completed);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(page);
+    }
+
+    /**
+     * Même flux de changements que getChangesSince.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<TodoChanges> changes(@RequestParam(defaultValue = "0") long since, WebRequest request) {
+        String etag = etag(todoService.version(), since);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache())
+                .body(todoService.changesSince(since));
+    }
+
+    @PostMapping
+    public ResponseEntity<Todo> create(@RequestBody Todo todo) {
+        todoService.add(todo);
+        return ResponseEntity.created(URI.create("/api/todos/" + todo.getId())).body(todo);
+    }
+
+    // Lot d'un seul todo : le résultat indique si l'id existait, sans comparer de message
+    @PutMapping("/{id}")
+    public Todo update(@PathVariable int id, @RequestBody Todo todo) {
+        todo.setId(id);
+        if (!todoService.updateAll(List.of(todo)).get(0).isSuccess()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Todo non trouvé");
+        }
+        return todo;
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> delete(@PathVariable int id) {
+        if (!todoService.deleteAll(List.of(id)).get(0).isSuccess()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Todo non trouvé");
+        }
+        return ResponseEntity.noContent().build();
+    }
+}
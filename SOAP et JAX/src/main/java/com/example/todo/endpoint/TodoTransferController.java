@@ -0,0 +1,69 @@
+package com.example.todo.endpoint;
+
+import com.example.todo.model.Todo;
+import com.example.todo.model.TodoImportReport;
+import com.example.todo.repository.TodoXmlCodec;
+import com.example.todo.service.TodoService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Import et export en masse, à côté du servlet CXF, au format du snapshot XML
+ * (<todos><todo><title/><completed/></todo>...</todos>). Les documents sont lus et écrits
+ * en flux (StAX) : ni arbre XML ni copie du store ne sont construits.
+ */
+@RestController
+public class TodoTransferController {
+
+    @Autowired
+    private TodoService todoService;
+
+    /**
+     * Ajoute tous les todos du document d'un bloc : ids consécutifs, publiés ensemble une fois le
+     * document entièrement lu (voir TodoService.Importer). Les ids du document sont ignorés, même
+     * absents ou invalides. Un document invalide est rejeté sans rien ajouter.
+     */
+    @PostMapping(path = "/todos/import", consumes = {MediaType.APPLICATION_XML_VALUE, MediaType.TEXT_XML_VALUE})
+    public TodoImportReport importTodos(HttpServletRequest request) throws IOException {
+        TodoService.Importer importer = todoService.importer();
+        try (InputStream in = request.getInputStream()) {
+            TodoXmlCodec.readIgnoringIds(in, importer::add);
+        } catch (XMLStreamException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Document de todos invalide : " + e.getMessage(), e);
+        }
+        return importer.commit();
+    }
+
+    /**
+     * Écrit en flux la version du store courante au moment de l'appel.
+     */
+    @GetMapping(path = "/todos/export", produces = MediaType.APPLICATION_XML_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportTodos() {
+        Iterable<Todo> todos = todoService.iterateAll();
+        StreamingResponseBody body = out -> {
+            try (OutputStream buffered = new BufferedOutputStream(out, 64 * 1024)) {
+                TodoXmlCodec.write(todos, buffered);
+            } catch (XMLStreamException e) {
+                throw new IOException("Export des todos impossible", e);
+            }
+        };
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"todos.xml\"")
+                .body(body);
+    }
+}
@@ -3,6 +3,8 @@ package com.example.todo.model;
 import jakarta.xml.bind.annotation.XmlElement;
 import jakarta.xml.bind.annotation.XmlRootElement;
 
+import java.util.Objects;
+
 @XmlRootElement(name = "todo")
 public class Todo {
     
@@ -47,4 +49,21 @@ public class Todo {
     public void setCompleted(boolean completed) {
         isCompleted = completed;
     }
+
+    // Le store renvoie des copies : deux todos sont égaux s'ils ont le même contenu
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Todo other)) {
+            return false;
+        }
+        return id == other.id && isCompleted == other.isCompleted && Objects.equals(title, other.title);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, title, isCompleted);
+    }
 }
@@ -0,0 +1,68 @@
+package com.example.todo.model;
+
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlRootElement;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@XmlRootElement(name = "todoChanges")
+public class TodoChanges {
+
+    private long version;
+    private boolean resync;
+    private List<Todo> todos;
+    private List<Integer> deletedIds;
+
+    // Default constructor required by JAXB
+    public TodoChanges() {
+        this.todos = new ArrayList<>();
+        this.deletedIds = new ArrayList<>();
+    }
+
+    public TodoChanges(long version, boolean resync, List<Todo> todos, List<Integer> deletedIds) {
+        this.version = version;
+        this.resync = resync;
+        this.todos = todos;
+        this.deletedIds = deletedIds;
+    }
+
+    // Version à renvoyer au prochain appel
+    @XmlElement
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    // Vrai si les changements demandés ne sont plus connus : le client doit tout recharger
+    @XmlElement
+    public boolean isResync() {
+        return resync;
+    }
+
+    public void setResync(boolean resync) {
+        this.resync = resync;
+    }
+
+    // Todos ajoutés ou modifiés, dans leur dernier état
+    @XmlElement(name = "todo")
+    public List<Todo> getTodos() {
+        return todos;
+    }
+
+    public void setTodos(List<Todo> todos) {
+        this.todos = todos;
+    }
+
+    @XmlElement(name = "deletedId")
+    public List<Integer> getDeletedIds() {
+        return deletedIds;
+    }
+
+    public void setDeletedIds(List<Integer> deletedIds) {
+        this.deletedIds = deletedIds;
+    }
+}
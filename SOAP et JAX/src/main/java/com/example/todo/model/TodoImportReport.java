@@ -0,0 +1,7 @@
+package com.example.todo.model;
+
+/**
+ * Résultat de POST /todos/import : nombre de todos ajoutés et intervalle de leurs ids (0 si aucun).
+ */
+public record TodoImportReport(int imported, int firstId, int lastId) {
+}
@@ -0,0 +1,43 @@
+package com.example.todo.model;
+
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlRootElement;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@XmlRootElement(name = "todoPage")
+public class TodoPage {
+
+    private List<Todo> todos;
+    private String nextToken;
+
+    // Default constructor required by JAXB
+    public TodoPage() {
+        this.todos = new ArrayList<>();
+    }
+
+    public TodoPage(List<Todo> todos, String nextToken) {
+        this.todos = todos;
+        this.nextToken = nextToken;
+    }
+
+    @XmlElement(name = "todo")
+    public List<Todo> getTodos() {
+        return todos;
+    }
+
+    public void setTodos(List<Todo> todos) {
+        this.todos = todos;
+    }
+
+    // Jeton à renvoyer pour obtenir la page suivante, absent sur la dernière page
+    @XmlElement
+    public String getNextToken() {
+        return nextToken;
+    }
+
+    public void setNextToken(String nextToken) {
+        this.nextToken = nextToken;
+    }
+}
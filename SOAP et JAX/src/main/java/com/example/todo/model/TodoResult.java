@@ -0,0 +1,49 @@
+package com.example.todo.model;
+
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlRootElement;
+
+@XmlRootElement(name = "todoResult")
+public class TodoResult {
+
+    private int id;
+    private boolean success;
+    private String message;
+
+    // Default constructor required by JAXB
+    public TodoResult() {
+    }
+
+    public TodoResult(int id, boolean success, String message) {
+        this.id = id;
+        this.success = success;
+        this.message = message;
+    }
+
+    @XmlElement
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    @XmlElement
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    @XmlElement
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
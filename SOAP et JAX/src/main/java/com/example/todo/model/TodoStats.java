@@ -0,0 +1,49 @@
+package com.example.todo.model;
+
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlRootElement;
+
+@XmlRootElement(name = "todoStats")
+public class TodoStats {
+
+    private int total;
+    private int completed;
+    private int pending;
+
+    // Default constructor required by JAXB
+    public TodoStats() {
+    }
+
+    public TodoStats(int total, int completed) {
+        this.total = total;
+        this.completed = completed;
+        this.pending = total - completed;
+    }
+
+    @XmlElement
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    @XmlElement
+    public int getCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(int completed) {
+        this.completed = completed;
+    }
+
+    @XmlElement
+    public int getPending() {
+        return pending;
+    }
+
+    public void setPending(int pending) {
+        this.pending = pending;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.todo.repository;
+
+import com.example.todo.model.Todo;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * Snapshot binaire projeté en mémoire au démarrage (voir TodoBinaryCodec).
+ */
+public class BinaryTodoRepository extends FileTodoRepository {
+
+    public BinaryTodoRepository(Path path, long compactIntervalMs, int compactThreshold, double tombstoneRatio,
+                                long groupWindowMs, int groupSize) {
+        super(path, compactIntervalMs, compactThreshold, tombstoneRatio, groupWindowMs, groupSize);
+    }
+
+    @Override
+    protected void readSnapshot(Path file, Consumer<Todo> consumer) throws IOException {
+        TodoBinaryCodec.read(file, consumer);
+    }
+
+    @Override
+    protected void writeSnapshot(Collection<Todo> todos, Path file) throws IOException {
+        TodoBinaryCodec.write(todos, file);
+    }
+}
@@ -0,0 +1,412 @@
+package com.example.todo.repository;
+
+import com.example.todo.model.Todo;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Repository fichier : un snapshot complet plus un journal append-only des mutations
+ * (chemin du snapshot + ".journal"). Les mutations concurrentes sont écrites dans le journal
+ * par groupes, avec un seul fsync par groupe (voir TodoJournal) ; le format du snapshot est
+ * laissé aux sous-classes.
+ *
+ * Une suppression n'est qu'une pierre tombale dans le journal : l'enregistrement du snapshot
+ * reste en place et est ignoré au rejeu. Le journal n'est replié dans un nouveau snapshot
+ * (réécriture complète) que lorsque ces enregistrements morts dépassent tombstoneRatio des
+ * enregistrements du snapshot, ou que le journal atteint compactThreshold mutations.
+ *
+ * Avec watch, le snapshot modifié hors de l'application (édition à la main) est relu par un
+ * thread dédié puis remplace tout le store ; le journal, qu'il supplante, est vidé. Les écritures
+ * du repository lui-même sont reconnues à leur date de modification et à leur taille.
+ */
+public abstract class FileTodoRepository implements TodoRepository {
+
+    private final Path path;
+    private final Path journalPath;
+    private final long compactIntervalMs;
+    private final int compactThreshold;
+    private final double tombstoneRatio;
+    private final long groupWindowMs;
+    private final int groupSize;
+
+    private final AtomicInteger journaledCount = new AtomicInteger();
+    // Suppressions journalisées visant un enregistrement du snapshot (id <= snapshotMaxId)
+    private final AtomicInteger tombstones = new AtomicInteger();
+    private volatile int snapshotRecords;
+    private volatile int snapshotMaxId;
+    private final AtomicBoolean compactionScheduled = new AtomicBoolean();
+    private final Object compactLock = new Object();
+    private TodoSnapshotSource snapshots;
+    private TodoJournal journal;
+    private ScheduledExecutorService scheduler;
+    private WatchService watcher;
+    // Snapshot tel que lu ou écrit par ce repository, protégé par compactLock
+    private Stamp written;
+    private volatile TodoStoreMetrics metrics = TodoStoreMetrics.NONE;
+
+    // Délai sans nouvelle modification avant de relire le fichier : un éditeur écrit souvent en plusieurs fois
+    private static final long WATCH_SETTLE_MS = 200;
+
+    private record Stamp(FileTime modified, long size) {
+
+        static Stamp of(Path file) {
+            try {
+                return new Stamp(Files.getLastModifiedTime(file), Files.size(file));
+            } catch (IOException e) {
+                return null;
+            }
+        }
+    }
+
+    protected FileTodoRepository(Path path, long compactIntervalMs, int compactThreshold, double tombstoneRatio,
+                                 long groupWindowMs, int groupSize) {
+        this.path = path;
+        this.journalPath = path.resolveSibling(path.getFileName() + ".journal");
+        this.compactIntervalMs = compactIntervalMs;
+        this.compactThreshold = compactThreshold;
+        this.tombstoneRatio = tombstoneRatio;
+        this.groupWindowMs = groupWindowMs;
+        this.groupSize = groupSize;
+    }
+
+    protected abstract void readSnapshot(Path file, Consumer<Todo> consumer) throws IOException;
+
+    protected abstract void writeSnapshot(Collection<Todo> todos, Path file) throws IOException;
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Publie dans registry les temps d'E/S du store et la taille du snapshot et du journal.
+     * À appeler avant open.
+     */
+    public void bindMetrics(MeterRegistry registry) {
+        metrics = new TodoStoreMetrics(registry);
+        Gauge.builder("todo.store.file.size", path, FileTodoRepository::sizeOf).description("Taille d'un fichier du store")
+                .tag("file", "snapshot").baseUnit("bytes").register(registry);
+        Gauge.builder("todo.store.file.size", journalPath, FileTodoRepository::sizeOf).description("Taille d'un fichier du store")
+                .tag("file", "journal").baseUnit("bytes").register(registry);
+    }
+
+    private static double sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    TodoStoreMetrics metrics() {
+        return metrics;
+    }
+
+    private void readTimed(Consumer<Todo> consumer) throws IOException {
+        long start = System.nanoTime();
+        readSnapshot(path, consumer);
+        metrics.snapshotRead.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Appelé pour chaque mutation du journal, rejouée à l'ouverture ou nouvelle (sous les verrous
+     * de ses todos). Permet aux sous-classes de savoir ce que le prochain snapshot doit réécrire.
+     */
+    protected void journaled(TodoMutation mutation) {
+    }
+
+    /**
+     * Appelé à la coupure d'une compaction, toutes écritures bloquées, juste après la rotation du journal.
+     */
+    protected void cut() {
+    }
+
+    @Override
+    public void open(TodoSnapshotSource snapshots, Consumer<TodoMutation> consumer) {
+        this.snapshots = snapshots;
+        int[] records = {0, 0};
+        if (Files.exists(path)) {
+            try {
+                readTimed(todo -> {
+                    records[0]++;
+                    records[1] = Math.max(records[1], todo.getId());
+                    consumer.accept(TodoMutation.add(todo));
+                });
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        snapshotRecords = records[0];
+        snapshotMaxId = records[1];
+        tombstones.set(0);
+        synchronized (compactLock) {
+            written = Stamp.of(path);
+        }
+        journal = new TodoJournal(journalPath, groupWindowMs, groupSize, metrics);
+        try {
+            journaledCount.set(journal.open(mutation -> {
+                countTombstone(mutation);
+                journaled(mutation);
+                consumer.accept(mutation);
+            }));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Impossible d'ouvrir le journal des todos", e);
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "todo-journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Vérification périodique : reprend aussi une compaction qui a échoué
+        scheduler.scheduleWithFixedDelay(() -> {
+            if (compactionDue()) {
+                compact();
+            }
+        }, compactIntervalMs, compactIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void countTombstone(TodoMutation mutation) {
+        if (mutation.type() == TodoMutation.Type.DELETE && mutation.id() <= snapshotMaxId) {
+            tombstones.incrementAndGet();
+        }
+    }
+
+    private boolean compactionDue() {
+        int dead = tombstones.get();
+        return journaledCount.get() >= compactThreshold
+                || (dead > 0 && snapshotRecords > 0 && dead >= tombstoneRatio * snapshotRecords);
+    }
+
+    @Override
+    public CompletableFuture<Void> append(List<TodoMutation> mutations) {
+        if (mutations.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        for (TodoMutation mutation : mutations) {
+            countTombstone(mutation);
+            journaled(mutation);
+        }
+        CompletableFuture<Void> durable = journal.append(mutations);
+        journaledCount.addAndGet(mutations.size());
+        if (compactionDue() && !scheduler.isShutdown() && compactionScheduled.compareAndSet(false, true)) {
+            scheduler.execute(this::compact);
+        }
+        return durable;
+    }
+
+    /**
+     * Replie le journal dans un nouveau snapshot puis supprime la partie du journal
+     * désormais couverte par ce snapshot. Appelée directement, la compaction a lieu dès
+     * que le journal n'est pas vide, quels que soient les seuils.
+     */
+    public void compact() {
+        synchronized (compactLock) {
+            compactionScheduled.set(false);
+            int[] compacted = {0, 0};
+            TodoSnapshot snapshot;
+            try {
+                snapshot = snapshots.snapshot(() -> {
+                    compacted[0] = journaledCount.get();
+                    if (compacted[0] == 0) {
+                        return false;
+                    }
+                    try {
+                        journal.rotate();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    journaledCount.addAndGet(-compacted[0]);
+                    compacted[1] = tombstones.getAndSet(0);
+                    cut();
+                    return true;
+                });
+            } catch (UncheckedIOException e) {
+                e.printStackTrace();
+                return;
+            }
+            if (snapshot == null) {
+                return;
+            }
+            try {
+                long start = System.nanoTime();
+                saveSnapshot(snapshot);
+                metrics.snapshotWrite.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                written = Stamp.of(path);
+                journal.discardRotated();
+                snapshotRecords = snapshot.size();
+                snapshotMaxId = snapshot.maxId();
+            } catch (IOException e) {
+                e.printStackTrace();
+                journaledCount.addAndGet(compacted[0]);
+                tombstones.addAndGet(compacted[1]);
+            }
+        }
+    }
+
+    @Override
+    public void watch(TodoReloadTarget target) {
+        Path file = path.toAbsolutePath();
+        try {
+            watcher = file.getFileSystem().newWatchService();
+            file.getParent().register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
+        Thread thread = new Thread(() -> watchLoop(file, target), "todo-watch");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void watchLoop(Path file, TodoReloadTarget target) {
+        try {
+            while (true) {
+                if (!touches(watcher.take(), file)) {
+                    continue;
+                }
+                long lastChange = System.nanoTime();
+                long quiet;
+                while ((quiet = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastChange)) < WATCH_SETTLE_MS) {
+                    WatchKey key = watcher.poll(WATCH_SETTLE_MS - quiet, TimeUnit.MILLISECONDS);
+                    if (key != null && touches(key, file)) {
+                        lastChange = System.nanoTime();
+                    }
+                }
+                reloadIfChanged(target);
+            }
+        } catch (ClosedWatchServiceException e) {
+            // repository fermé
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Vrai si un événement de la clé concerne le fichier (ou si des événements ont été perdus) ; réarme la clé
+    private static boolean touches(WatchKey key, Path file) {
+        boolean touched = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || file.getFileName().equals(event.context())) {
+                touched = true;
+            }
+        }
+        key.reset();
+        return touched;
+    }
+
+    /**
+     * Relit le snapshot s'il a changé depuis la dernière lecture ou écriture du repository, et le
+     * publie à la place du store. Les écritures journalisées depuis la dernière compaction ont été
+     * confirmées : elles sont rejouées par-dessus le fichier, et le journal reste en place jusqu'à ce
+     * qu'un snapshot écrit ici les couvre. Un fichier illisible (écriture en cours, XML invalide,
+     * id incorrect) est ignoré : le store courant est conservé jusqu'à la modification suivante.
+     */
+    private void reloadIfChanged(TodoReloadTarget target) {
+        synchronized (compactLock) {
+            Stamp stamp = Stamp.of(path);
+            if (scheduler.isShutdown() || stamp == null || stamp.equals(written)) {
+                return;
+            }
+            List<Todo> todos = new ArrayList<>();
+            try {
+                readTimed(todos::add);
+            } catch (IOException e) {
+                e.printStackTrace();
+                return;
+            }
+            int maxId = todos.stream().mapToInt(Todo::getId).max().orElse(0);
+            try {
+                target.reload(todos, () -> {
+                    List<TodoMutation> pending;
+                    try {
+                        pending = journal.pending();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    // Les compteurs de compaction se rapportent désormais au fichier relu
+                    snapshotRecords = todos.size();
+                    snapshotMaxId = maxId;
+                    tombstones.set(0);
+                    pending.forEach(this::countTombstone);
+                    return pending;
+                });
+            } catch (RuntimeException e) {
+                // Contenu refusé par le store : le thread de surveillance doit survivre
+                e.printStackTrace();
+                return;
+            }
+            written = stamp;
+            System.out.println("Todos rechargés depuis " + path + " : " + todos.size());
+        }
+    }
+
+    /**
+     * Écrit le snapshot (trié par id) à la place de l'ancien, de façon atomique.
+     */
+    protected void saveSnapshot(TodoSnapshot todos) throws IOException {
+        Path file = path.toAbsolutePath();
+        Files.createDirectories(file.getParent());
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        writeSnapshot(todos, tmp);
+        force(tmp);
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // fsync d'un fichier du snapshot avant son renommage
+    void force(Path file) throws IOException {
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        metrics.snapshotFsync.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void close() {
+        if (scheduler == null || scheduler.isShutdown()) {
+            return;
+        }
+        if (watcher != null) {
+            try {
+                watcher.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        compact();
+        try {
+            journal.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.todo.repository;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Aucune persistance : le store démarre vide et tout est perdu à l'arrêt.
+ * Sert de référence pour les tests de charge, sans aucun coût d'E/S.
+ */
+public class InMemoryTodoRepository implements TodoRepository {
+
+    @Override
+    public void open(TodoSnapshotSource snapshots, Consumer<TodoMutation> consumer) {
+    }
+
+    @Override
+    public CompletableFuture<Void> append(List<TodoMutation> mutations) {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public void close() {
+    }
+}
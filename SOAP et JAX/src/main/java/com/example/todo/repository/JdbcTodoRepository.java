@@ -0,0 +1,112 @@
+package com.example.todo.repository;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Persistance dans une base JDBC embarquée (H2 par défaut) : une ligne par todo,
+ * clé primaire sur id et index sur completed. Chaque append est une transaction.
+ */
+public class JdbcTodoRepository implements TodoRepository {
+
+    private static final String CREATE_TABLE =
+            "CREATE TABLE IF NOT EXISTS todo (id INT PRIMARY KEY, title VARCHAR, completed BOOLEAN NOT NULL)";
+    private static final String CREATE_INDEX =
+            "CREATE INDEX IF NOT EXISTS todo_completed_idx ON todo (completed)";
+    private static final String SELECT_ALL = "SELECT id, title, completed FROM todo";
+    private static final String MERGE = "MERGE INTO todo (id, title, completed) KEY (id) VALUES (?, ?, ?)";
+    private static final String DELETE = "DELETE FROM todo WHERE id = ?";
+
+    private final String url;
+    private final String username;
+    private final String password;
+    private Connection connection;
+    private PreparedStatement merge;
+    private PreparedStatement delete;
+
+    public JdbcTodoRepository(String url, String username, String password) {
+        this.url = url;
+        this.username = username;
+        this.password = password;
+    }
+
+    @Override
+    public synchronized void open(TodoSnapshotSource snapshots, Consumer<TodoMutation> consumer) {
+        try {
+            connection = DriverManager.getConnection(url, username, password);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_TABLE);
+                statement.execute(CREATE_INDEX);
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.setFetchSize(1000);
+                try (ResultSet rows = statement.executeQuery(SELECT_ALL)) {
+                    while (rows.next()) {
+                        consumer.accept(new TodoMutation(TodoMutation.Type.ADD,
+                                rows.getInt(1), rows.getString(2), rows.getBoolean(3)));
+                    }
+                }
+            }
+            connection.setAutoCommit(false);
+            merge = connection.prepareStatement(MERGE);
+            delete = connection.prepareStatement(DELETE);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Impossible d'ouvrir la base des todos : " + url, e);
+        }
+    }
+
+    @Override
+    public synchronized CompletableFuture<Void> append(List<TodoMutation> mutations) {
+        if (mutations.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        try {
+            // Les lots sont exécutés dans l'ordre des mutations : on vide le lot courant
+            // dès que le type d'instruction change
+            PreparedStatement pending = null;
+            for (TodoMutation mutation : mutations) {
+                PreparedStatement statement = mutation.type() == TodoMutation.Type.DELETE ? delete : merge;
+                if (pending != null && pending != statement) {
+                    pending.executeBatch();
+                }
+                statement.setInt(1, mutation.id());
+                if (statement == merge) {
+                    statement.setString(2, mutation.title());
+                    statement.setBoolean(3, mutation.completed());
+                }
+                statement.addBatch();
+                pending = statement;
+            }
+            pending.executeBatch();
+            connection.commit();
+            return CompletableFuture.completedFuture(null);
+        } catch (SQLException e) {
+            try {
+                connection.rollback();
+            } catch (SQLException rollback) {
+                e.addSuppressed(rollback);
+            }
+            throw new IllegalStateException("Écriture des todos en base impossible", e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        connection = null;
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.todo.repository;
+
+import com.example.todo.model.Todo;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Snapshot découpé en segments de segmentSize ids consécutifs, chacun dans son fichier binaire
+ * (voir TodoBinaryCodec) sous le répertoire "chemin + .segments". Le fichier du chemin est un
+ * petit manifeste texte : la taille des segments puis une ligne "numéro nombre" par segment.
+ *
+ * Une compaction ne réécrit que les segments touchés par le journal depuis la précédente,
+ * puis le manifeste : seuls les todos de ces segments sont lus dans le snapshot (par intervalle
+ * d'ids) et le manifeste est écrit depuis les nombres de todos par segment tenus à jour, si bien
+ * que le coût d'une mise à jour est celui de son segment, pas du store entier.
+ * Au démarrage, les segments sont lus en parallèle.
+ */
+public class SegmentedTodoRepository extends FileTodoRepository {
+
+    private static final String SEGMENT_SIZE = "segment-size=";
+
+    private final Path segmentDirectory;
+    private volatile int segmentSize;
+
+    // Segments modifiés depuis la dernière coupure, et ceux que la compaction en cours doit réécrire
+    private volatile Set<Integer> dirty = ConcurrentHashMap.newKeySet();
+    private Set<Integer> cutSegments = Set.of();
+    // Nombre de todos par segment non vide, tel que dans le manifeste ; protégé par compactLock
+    private TreeMap<Integer, Integer> counts = new TreeMap<>();
+
+    public SegmentedTodoRepository(Path path, int segmentSize, long compactIntervalMs, int compactThreshold,
+                                   double tombstoneRatio, long groupWindowMs, int groupSize) {
+        super(path, compactIntervalMs, compactThreshold, tombstoneRatio, groupWindowMs, groupSize);
+        if (segmentSize <= 0) {
+            throw new IllegalArgumentException("segmentSize doit être positif : " + segmentSize);
+        }
+        this.segmentSize = segmentSize;
+        this.segmentDirectory = path.resolveSibling(path.getFileName() + ".segments");
+    }
+
+    private int segmentOf(int id) {
+        return Math.floorDiv(id, segmentSize);
+    }
+
+    private Path segmentFile(int segment) {
+        return segmentDirectory.resolve(String.format("%08d.bin", segment));
+    }
+
+    @Override
+    protected void journaled(TodoMutation mutation) {
+        dirty.add(segmentOf(mutation.id()));
+    }
+
+    @Override
+    protected void cut() {
+        cutSegments = dirty;
+        dirty = ConcurrentHashMap.newKeySet();
+    }
+
+    @Override
+    protected void readSnapshot(Path file, Consumer<Todo> consumer) throws IOException {
+        TreeMap<Integer, Integer> segments = new TreeMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            if (header == null || !header.startsWith(SEGMENT_SIZE)) {
+                throw new IOException("Manifeste de segments invalide : " + file);
+            }
+            int stored = Integer.parseInt(header.substring(SEGMENT_SIZE.length()));
+            if (stored != segmentSize) {
+                // Le découpage existant fait foi : les fichiers couvrent ses intervalles d'ids
+                System.out.println("Taille de segment du manifeste conservée : " + stored);
+                segmentSize = stored;
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    int space = line.indexOf(' ');
+                    segments.put(Integer.parseInt(line.substring(0, space)), Integer.parseInt(line.substring(space + 1)));
+                }
+            }
+        } catch (NumberFormatException e) {
+            throw new IOException("Manifeste de segments invalide : " + file, e);
+        }
+        List<List<Todo>> contents;
+        try {
+            contents = segments.keySet().parallelStream().map(segment -> {
+                List<Todo> todos = new ArrayList<>();
+                try {
+                    TodoBinaryCodec.read(segmentFile(segment), todos::add);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return todos;
+            }).toList();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        contents.forEach(todos -> todos.forEach(consumer));
+        counts = segments;
+    }
+
+    /**
+     * Réécrit les segments modifiés avant la coupure, puis le manifeste ; les segments vidés
+     * ne sont supprimés qu'une fois le nouveau manifeste en place.
+     */
+    @Override
+    protected void saveSnapshot(TodoSnapshot todos) throws IOException {
+        Set<Integer> segments = new TreeSet<>(cutSegments);
+        try {
+            Files.createDirectories(segmentDirectory);
+            List<Integer> emptied = new ArrayList<>();
+            for (int segment : segments) {
+                List<Todo> content = slice(todos, segment);
+                if (content.isEmpty()) {
+                    emptied.add(segment);
+                    counts.remove(segment);
+                } else {
+                    writeSegment(content, segmentFile(segment));
+                    counts.put(segment, content.size());
+                }
+            }
+            super.saveSnapshot(todos);
+            for (int segment : emptied) {
+                Files.deleteIfExists(segmentFile(segment));
+            }
+        } catch (IOException e) {
+            // Les segments non écrits devront l'être à la prochaine compaction
+            dirty.addAll(segments);
+            throw e;
+        }
+    }
+
+    // Todos du segment, lus dans le snapshot à partir du premier id de son intervalle
+    private List<Todo> slice(TodoSnapshot todos, int segment) {
+        int first = segment * segmentSize;
+        long end = (long) first + segmentSize;
+        List<Todo> content = new ArrayList<>();
+        todos.forEachFrom(first, todo -> todo.getId() < end && content.add(todo));
+        return content;
+    }
+
+    private void writeSegment(List<Todo> todos, Path file) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        TodoBinaryCodec.write(todos, tmp);
+        force(tmp);
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Le manifeste : taille des segments puis, par segment non vide, son numéro et son nombre de todos.
+    // Les nombres viennent de counts, à jour des segments réécrits : les todos ne sont pas relus.
+    @Override
+    protected void writeSnapshot(Collection<Todo> todos, Path file) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(SEGMENT_SIZE + segmentSize);
+            writer.newLine();
+            for (Map.Entry<Integer, Integer> segment : counts.entrySet()) {
+                writer.write(segment.getKey() + " " + segment.getValue());
+                writer.newLine();
+            }
+        }
+    }
+}
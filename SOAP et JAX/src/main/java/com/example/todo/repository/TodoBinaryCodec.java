@@ -0,0 +1,140 @@
+package com.example.todo.repository;
+
+import com.example.todo.model.Todo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * Snapshot binaire des todos : un en-tête, des enregistrements de taille fixe puis un tas
+ * de titres UTF-8.
+ *
+ * <pre>
+ * en-tête (24 octets) : magic "TDB1" | version | nombre de todos | réservé | offset du tas (long)
+ * enregistrement (16 octets) : id | flags (bit 0 : completed, bit 1 : titre présent) | offset du titre | longueur du titre
+ * tas : titres UTF-8 concaténés, offsets relatifs au début du tas
+ * </pre>
+ *
+ * La lecture passe par FileChannel.map : aucun parsing, les enregistrements sont lus
+ * directement dans le fichier projeté en mémoire.
+ */
+public final class TodoBinaryCodec {
+
+    private static final int MAGIC = 0x54444231;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 24;
+    private static final int RECORD_SIZE = 16;
+    private static final int FLAG_COMPLETED = 1;
+    private static final int FLAG_TITLE = 2;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private TodoBinaryCodec() {
+    }
+
+    public static int read(Path file, Consumer<Todo> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot binaire trop volumineux pour être projeté : " + size);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            buffer.order(ByteOrder.BIG_ENDIAN);
+            if (size < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+                throw new IOException("Fichier non reconnu comme snapshot binaire de todos : " + file);
+            }
+            if (buffer.getInt(4) != VERSION) {
+                throw new IOException("Version de snapshot binaire non supportée : " + buffer.getInt(4));
+            }
+            int count = buffer.getInt(8);
+            int heapOffset = (int) buffer.getLong(16);
+            byte[] title = new byte[256];
+            for (int i = 0; i < count; i++) {
+                int record = HEADER_SIZE + i * RECORD_SIZE;
+                int id = buffer.getInt(record);
+                int flags = buffer.getInt(record + 4);
+                Todo todo = new Todo(id, null, (flags & FLAG_COMPLETED) != 0);
+                if ((flags & FLAG_TITLE) != 0) {
+                    int offset = buffer.getInt(record + 8);
+                    int length = buffer.getInt(record + 12);
+                    if (length > title.length) {
+                        title = new byte[Math.max(length, title.length * 2)];
+                    }
+                    buffer.get(heapOffset + offset, title, 0, length);
+                    todo.setTitle(new String(title, 0, length, StandardCharsets.UTF_8));
+                }
+                consumer.accept(todo);
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Écrit les enregistrements et le tas en une passe : chacun dispose de son tampon,
+     * vidé à sa propre position dans le fichier.
+     */
+    public static void write(Collection<Todo> todos, Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long heapStart = HEADER_SIZE + (long) todos.size() * RECORD_SIZE;
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putInt(todos.size()).putInt(0).putLong(heapStart);
+            header.flip();
+            writeAt(channel, header, 0);
+
+            ByteBuffer records = ByteBuffer.allocate(BUFFER_SIZE);
+            ByteBuffer heap = ByteBuffer.allocate(BUFFER_SIZE);
+            long recordPosition = HEADER_SIZE;
+            long heapPosition = heapStart;
+            long heapLength = 0;
+            for (Todo todo : todos) {
+                byte[] title = todo.getTitle() != null ? todo.getTitle().getBytes(StandardCharsets.UTF_8) : null;
+                if (title != null && heapLength + title.length > Integer.MAX_VALUE) {
+                    throw new IOException("Tas de titres trop volumineux pour le format binaire");
+                }
+                if (records.remaining() < RECORD_SIZE) {
+                    recordPosition += flush(channel, records, recordPosition);
+                }
+                int flags = (todo.isCompleted() ? FLAG_COMPLETED : 0) | (title != null ? FLAG_TITLE : 0);
+                records.putInt(todo.getId()).putInt(flags)
+                        .putInt(title != null ? (int) heapLength : 0)
+                        .putInt(title != null ? title.length : 0);
+                if (title != null) {
+                    if (heap.remaining() < title.length) {
+                        heapPosition += flush(channel, heap, heapPosition);
+                    }
+                    if (title.length > heap.capacity()) {
+                        heapPosition += writeAt(channel, ByteBuffer.wrap(title), heapPosition);
+                    } else {
+                        heap.put(title);
+                    }
+                    heapLength += title.length;
+                }
+            }
+            flush(channel, records, recordPosition);
+            flush(channel, heap, heapPosition);
+        }
+    }
+
+    private static int flush(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        buffer.flip();
+        int written = writeAt(channel, buffer, position);
+        buffer.clear();
+        return written;
+    }
+
+    private static int writeAt(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int written = 0;
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer, position + written);
+        }
+        return written;
+    }
+}
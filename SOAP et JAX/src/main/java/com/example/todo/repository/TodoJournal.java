@@ -0,0 +1,359 @@
+package com.example.todo.repository;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Journal append-only des mutations de todos, écrit à côté du snapshot XML.
+ * Chaque enregistrement est [longueur][op][id][completed][titre UTF-8][crc32] ;
+ * la relecture s'arrête au premier enregistrement incomplet ou corrompu.
+ * Un lot est écrit comme un seul enregistrement BATCH : il est rejoué entièrement ou pas du tout.
+ *
+ * Les écritures sont groupées (group commit) : append met l'enregistrement en file et un thread
+ * dédié écrit la file d'un seul write puis d'un seul fsync, dès que groupSize enregistrements
+ * attendent ou que groupWindowMs s'est écoulé depuis le premier. Chaque appelant est prévenu
+ * par son CompletableFuture quand son groupe est durable.
+ */
+class TodoJournal implements Closeable {
+
+    private static final byte ADD = 'A';
+    private static final byte UPDATE = 'U';
+    private static final byte DELETE = 'D';
+    private static final byte BATCH = 'B';
+
+    private final Path path;
+    private final Path rotatedPath;
+    private final long groupWindowMs;
+    private final int groupSize;
+    private final TodoStoreMetrics metrics;
+    private FileChannel channel;
+
+    // File du groupe en cours de constitution, protégée par queueLock
+    private final Object queueLock = new Object();
+    private List<ByteBuffer> queuedRecords = new ArrayList<>();
+    private List<CompletableFuture<Void>> queuedFutures = new ArrayList<>();
+    private boolean closed;
+    private Thread committer;
+
+    TodoJournal(Path path, long groupWindowMs, int groupSize) {
+        this(path, groupWindowMs, groupSize, TodoStoreMetrics.NONE);
+    }
+
+    TodoJournal(Path path, long groupWindowMs, int groupSize, TodoStoreMetrics metrics) {
+        this.path = path;
+        this.rotatedPath = path.resolveSibling(path.getFileName() + ".old");
+        this.groupWindowMs = groupWindowMs;
+        this.groupSize = Math.max(1, groupSize);
+        this.metrics = metrics;
+    }
+
+    /**
+     * Rejoue le journal tourné (compaction interrompue) puis le journal courant,
+     * et ouvre ce dernier en ajout en tronquant une éventuelle fin déchirée.
+     */
+    synchronized int open(Consumer<TodoMutation> consumer) throws IOException {
+        int replayed = 0;
+        if (Files.exists(rotatedPath)) {
+            replayed += replay(rotatedPath, consumer)[0];
+        }
+        long validLength = 0;
+        if (Files.exists(path)) {
+            long[] result = replay(path, consumer);
+            replayed += (int) result[0];
+            validLength = result[1];
+        }
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        channel.truncate(validLength);
+        channel.position(validLength);
+        committer = new Thread(this::commitLoop, "todo-journal-commit");
+        committer.setDaemon(true);
+        committer.start();
+        return replayed;
+    }
+
+    private static long[] replay(Path file, Consumer<TodoMutation> consumer) throws IOException {
+        long count = 0;
+        long validLength = 0;
+        try (InputStream in = Files.newInputStream(file);
+             DataInputStream data = new DataInputStream(new BufferedInputStream(in))) {
+            CRC32 crc = new CRC32();
+            while (true) {
+                int length;
+                byte[] payload;
+                int checksum;
+                try {
+                    length = data.readInt();
+                    if (length < 5) {
+                        break;
+                    }
+                    payload = new byte[length];
+                    data.readFully(payload);
+                    checksum = data.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                crc.reset();
+                crc.update(payload);
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+                ByteBuffer buffer = ByteBuffer.wrap(payload);
+                if (payload[0] == BATCH) {
+                    buffer.get();
+                    int size = buffer.getInt();
+                    for (int i = 0; i < size; i++) {
+                        consumer.accept(decode(buffer));
+                    }
+                } else {
+                    consumer.accept(decode(buffer));
+                }
+                validLength += 8 + length;
+                count++;
+            }
+        }
+        return new long[] {count, validLength};
+    }
+
+    private static TodoMutation decode(ByteBuffer payload) {
+        TodoMutation.Type type = switch (payload.get()) {
+            case ADD -> TodoMutation.Type.ADD;
+            case UPDATE -> TodoMutation.Type.UPDATE;
+            case DELETE -> TodoMutation.Type.DELETE;
+            default -> throw new IllegalStateException("Type d'enregistrement de journal inconnu");
+        };
+        int id = payload.getInt();
+        boolean completed = payload.get() != 0;
+        int titleLength = payload.getInt();
+        String title = null;
+        if (titleLength >= 0) {
+            byte[] bytes = new byte[titleLength];
+            payload.get(bytes);
+            title = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return new TodoMutation(type, id, title, completed);
+    }
+
+    /**
+     * Met les entrées en file comme un seul enregistrement (BATCH s'il y en a plusieurs).
+     * Le résultat est complété quand le groupe qui le contient est écrit et synchronisé.
+     */
+    CompletableFuture<Void> append(List<TodoMutation> entries) {
+        if (entries.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        ByteBuffer record = encode(entries);
+        CompletableFuture<Void> durable = new CompletableFuture<>();
+        synchronized (queueLock) {
+            if (closed) {
+                throw new IllegalStateException("Journal des todos fermé");
+            }
+            queuedRecords.add(record);
+            queuedFutures.add(durable);
+            if (queuedRecords.size() == 1 || queuedRecords.size() >= groupSize) {
+                queueLock.notifyAll();
+            }
+        }
+        return durable;
+    }
+
+    private static ByteBuffer encode(List<TodoMutation> entries) {
+        boolean batch = entries.size() > 1;
+        List<byte[]> titles = new ArrayList<>(entries.size());
+        int length = batch ? 5 : 0;
+        for (TodoMutation entry : entries) {
+            byte[] titleBytes = entry.title() != null ? entry.title().getBytes(StandardCharsets.UTF_8) : null;
+            titles.add(titleBytes);
+            length += 10 + (titleBytes != null ? titleBytes.length : 0);
+        }
+        ByteBuffer record = ByteBuffer.allocate(8 + length);
+        record.putInt(length);
+        if (batch) {
+            record.put(BATCH);
+            record.putInt(entries.size());
+        }
+        for (int i = 0; i < entries.size(); i++) {
+            TodoMutation entry = entries.get(i);
+            byte[] titleBytes = titles.get(i);
+            record.put(switch (entry.type()) {
+                case ADD -> ADD;
+                case UPDATE -> UPDATE;
+                case DELETE -> DELETE;
+            });
+            record.putInt(entry.id());
+            record.put((byte) (entry.completed() ? 1 : 0));
+            record.putInt(titleBytes != null ? titleBytes.length : -1);
+            if (titleBytes != null) {
+                record.put(titleBytes);
+            }
+        }
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), 4, length);
+        record.putInt((int) crc.getValue());
+        record.flip();
+        return record;
+    }
+
+    // Attend qu'un groupe soit constitué (taille atteinte ou fenêtre écoulée) puis le rend durable
+    private void commitLoop() {
+        try {
+            while (true) {
+                synchronized (queueLock) {
+                    while (queuedRecords.isEmpty() && !closed) {
+                        queueLock.wait();
+                    }
+                    if (queuedRecords.isEmpty()) {
+                        return;
+                    }
+                    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(groupWindowMs);
+                    long remaining;
+                    while (queuedRecords.size() < groupSize && !closed
+                            && (remaining = deadline - System.nanoTime()) > 0) {
+                        TimeUnit.NANOSECONDS.timedWait(queueLock, remaining);
+                    }
+                }
+                sync();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Écrit la file d'attente d'un seul appel puis la force sur disque. En cas d'échec,
+     * le fichier est ramené à sa longueur précédente et les appelants reçoivent l'erreur.
+     */
+    synchronized void sync() {
+        List<ByteBuffer> records;
+        List<CompletableFuture<Void>> futures;
+        synchronized (queueLock) {
+            if (queuedRecords.isEmpty()) {
+                return;
+            }
+            records = queuedRecords;
+            futures = queuedFutures;
+            queuedRecords = new ArrayList<>();
+            queuedFutures = new ArrayList<>();
+        }
+        long start = -1;
+        try {
+            start = channel.position();
+            ByteBuffer[] buffers = records.toArray(new ByteBuffer[0]);
+            long remaining = 0;
+            for (ByteBuffer buffer : buffers) {
+                remaining += buffer.remaining();
+            }
+            long written = System.nanoTime();
+            while (remaining > 0) {
+                remaining -= channel.write(buffers);
+            }
+            long forced = System.nanoTime();
+            channel.force(false);
+            metrics.journalWrite.record(forced - written, TimeUnit.NANOSECONDS);
+            metrics.journalFsync.record(System.nanoTime() - forced, TimeUnit.NANOSECONDS);
+            metrics.journalGroup.record(records.size());
+        } catch (IOException e) {
+            e.printStackTrace();
+            if (start >= 0) {
+                try {
+                    channel.truncate(start);
+                    channel.position(start);
+                } catch (IOException truncate) {
+                    e.addSuppressed(truncate);
+                }
+            }
+            UncheckedIOException failure = new UncheckedIOException("Écriture du journal des todos impossible", e);
+            futures.forEach(future -> future.completeExceptionally(failure));
+            return;
+        }
+        futures.forEach(future -> future.complete(null));
+    }
+
+    /**
+     * Relit, dans l'ordre, les mutations que seul le journal contient (journal tourné puis courant).
+     * La file d'attente est écrite d'abord : la liste couvre toutes les écritures déjà confirmées.
+     */
+    synchronized List<TodoMutation> pending() throws IOException {
+        sync();
+        List<TodoMutation> mutations = new ArrayList<>();
+        if (Files.exists(rotatedPath)) {
+            replay(rotatedPath, mutations::add);
+        }
+        replay(path, mutations::add);
+        return mutations;
+    }
+
+    /**
+     * Met le journal courant de côté avant l'écriture d'un nouveau snapshot.
+     * Si une compaction précédente a échoué, ses enregistrements sont conservés
+     * en tête du journal tourné.
+     */
+    synchronized void rotate() throws IOException {
+        sync();
+        channel.close();
+        if (Files.exists(rotatedPath)) {
+            try (FileChannel rotated = FileChannel.open(rotatedPath, StandardOpenOption.APPEND);
+                 FileChannel current = FileChannel.open(path, StandardOpenOption.READ)) {
+                long size = current.size();
+                long transferred = 0;
+                while (transferred < size) {
+                    transferred += current.transferTo(transferred, size - transferred, rotated);
+                }
+                rotated.force(false);
+            }
+            Files.delete(path);
+        } else {
+            Files.move(path, rotatedPath, StandardCopyOption.ATOMIC_MOVE);
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Supprime le journal tourné une fois son contenu couvert par un snapshot durable.
+     */
+    void discardRotated() throws IOException {
+        Files.deleteIfExists(rotatedPath);
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (queueLock) {
+            closed = true;
+            queueLock.notifyAll();
+        }
+        if (committer != null) {
+            try {
+                committer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (this) {
+            if (channel != null && channel.isOpen()) {
+                sync();
+                channel.close();
+            }
+        }
+    }
+}
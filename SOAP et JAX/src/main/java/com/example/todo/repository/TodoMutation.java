@@ -0,0 +1,30 @@
+package com.example.todo.repository;
+
+import com.example.todo.model.Todo;
+
+/**
+ * Mutation unitaire du store, transmise au repository pour être rendue durable
+ * et rejouée au démarrage. Le titre est null pour une suppression.
+ */
+public record TodoMutation(Type type, int id, String title, boolean completed) {
+
+    public enum Type {
+        ADD, UPDATE, DELETE
+    }
+
+    public static TodoMutation add(Todo todo) {
+        return new TodoMutation(Type.ADD, todo.getId(), todo.getTitle(), todo.isCompleted());
+    }
+
+    public static TodoMutation update(Todo todo) {
+        return new TodoMutation(Type.UPDATE, todo.getId(), todo.getTitle(), todo.isCompleted());
+    }
+
+    public static TodoMutation delete(int id) {
+        return new TodoMutation(Type.DELETE, id, null, false);
+    }
+
+    public Todo toTodo() {
+        return new Todo(id, title, completed);
+    }
+}
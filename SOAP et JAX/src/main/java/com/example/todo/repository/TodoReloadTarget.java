@@ -0,0 +1,19 @@
+package com.example.todo.repository;
+
+import com.example.todo.model.Todo;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Reçoit du repository le contenu de son stockage modifié hors de l'application.
+ */
+@FunctionalInterface
+public interface TodoReloadTarget {
+
+    /**
+     * Remplace tout le store par todos, sur lesquels sont rejouées les mutations renvoyées par atCut.
+     * atCut est exécuté alors qu'aucune mutation n'est en cours, juste avant la publication du nouveau contenu.
+     */
+    void reload(List<Todo> todos, Supplier<List<TodoMutation>> atCut);
+}
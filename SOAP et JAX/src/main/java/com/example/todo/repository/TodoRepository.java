@@ -0,0 +1,39 @@
+package com.example.todo.repository;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Moteur de persistance du store de todos. TodoService garde l'état en mémoire et
+ * délègue au repository la durabilité de chaque mutation ; l'implémentation est
+ * choisie par todo.repository.type (xml, binary, jdbc ou memory).
+ */
+public interface TodoRepository {
+
+    /**
+     * Ouvre le stockage et transmet l'état persistant au consumer : le contenu courant
+     * sous forme d'ADD, puis les mutations à rejouer par-dessus.
+     */
+    void open(TodoSnapshotSource snapshots, Consumer<TodoMutation> consumer);
+
+    /**
+     * Enregistre les mutations d'une opération, en une seule unité. Appelé sous les
+     * verrous des todos concernés, donc dans l'ordre des mutations pour un même id.
+     * Le résultat est complété une fois les mutations durables : l'appelant l'attend
+     * après avoir relâché ses verrous.
+     */
+    CompletableFuture<Void> append(List<TodoMutation> mutations);
+
+    /**
+     * Surveille les modifications du stockage faites hors de l'application (fichier édité à la
+     * main) et transmet à target le contenu relu. Par défaut, aucune surveillance.
+     */
+    default void watch(TodoReloadTarget target) {
+    }
+
+    /**
+     * Libère le stockage après avoir persisté tout ce qui est en attente. Idempotent.
+     */
+    void close();
+}
@@ -0,0 +1,24 @@
+package com.example.todo.repository;
+
+import com.example.todo.model.Todo;
+
+import java.util.AbstractCollection;
+import java.util.function.Predicate;
+
+/**
+ * Contenu du store figé à une coupure, en lecture seule et par id croissant. Rien n'est recopié :
+ * le repository parcourt tout le store pour un snapshot complet, ou seulement les intervalles
+ * d'ids qu'il doit réécrire.
+ */
+public abstract class TodoSnapshot extends AbstractCollection<Todo> {
+
+    /**
+     * Plus grand id présent, 0 si le snapshot est vide.
+     */
+    public abstract int maxId();
+
+    /**
+     * Parcourt par id croissant les todos d'id >= fromId tant que visitor renvoie true.
+     */
+    public abstract void forEachFrom(int fromId, Predicate<Todo> visitor);
+}
@@ -0,0 +1,57 @@
+package com.example.todo.repository;
+
+import com.example.todo.model.Todo;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Conversion hors ligne entre le snapshot XML et le snapshot binaire.
+ *
+ * mvn exec:java -Dexec.mainClass=com.example.todo.repository.TodoSnapshotConverter -Dexec.args="import todos.xml todos.bin"
+ * mvn exec:java -Dexec.mainClass=com.example.todo.repository.TodoSnapshotConverter -Dexec.args="export todos.bin todos.xml"
+ */
+public final class TodoSnapshotConverter {
+
+    private TodoSnapshotConverter() {
+    }
+
+    public static void main(String[] args) throws IOException, XMLStreamException {
+        if (args.length != 3 || !("import".equals(args[0]) || "export".equals(args[0]))) {
+            System.err.println("Usage : TodoSnapshotConverter import <todos.xml> <todos.bin>");
+            System.err.println("        TodoSnapshotConverter export <todos.bin> <todos.xml>");
+            System.exit(2);
+        }
+        Path source = Paths.get(args[1]);
+        Path target = Paths.get(args[2]);
+        int count = "import".equals(args[0]) ? xmlToBinary(source, target) : binaryToXml(source, target);
+        System.out.println(count + " todos convertis de " + source + " vers " + target);
+    }
+
+    public static int xmlToBinary(Path xml, Path binary) throws IOException, XMLStreamException {
+        List<Todo> todos = new ArrayList<>();
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(xml))) {
+            TodoXmlCodec.read(in, todos::add);
+        }
+        TodoBinaryCodec.write(todos, binary);
+        return todos.size();
+    }
+
+    public static int binaryToXml(Path binary, Path xml) throws IOException, XMLStreamException {
+        List<Todo> todos = new ArrayList<>();
+        TodoBinaryCodec.read(binary, todos::add);
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(xml))) {
+            TodoXmlCodec.write(todos, out);
+        }
+        return todos.size();
+    }
+}
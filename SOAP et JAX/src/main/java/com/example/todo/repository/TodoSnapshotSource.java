@@ -0,0 +1,16 @@
+package com.example.todo.repository;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Fournit au repository une vue cohérente du store pour écrire un snapshot.
+ */
+@FunctionalInterface
+public interface TodoSnapshotSource {
+
+    /**
+     * Exécute atCut alors qu'aucune mutation n'est en cours, puis renvoie le store figé à cet
+     * instant ; renvoie null si atCut renvoie false.
+     */
+    TodoSnapshot snapshot(BooleanSupplier atCut);
+}
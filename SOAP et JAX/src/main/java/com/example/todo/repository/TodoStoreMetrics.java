@@ -0,0 +1,39 @@
+package com.example.todo.repository;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+
+/**
+ * Temps des E/S du store fichier : lecture (parsing) et écriture (sérialisation) du snapshot,
+ * écriture des groupes du journal et fsync de chacun des deux fichiers.
+ */
+final class TodoStoreMetrics {
+
+    // Registre vide : les mesures ne sont publiées nulle part
+    static final TodoStoreMetrics NONE = new TodoStoreMetrics(new CompositeMeterRegistry());
+
+    final Timer snapshotRead;
+    final Timer snapshotWrite;
+    final Timer snapshotFsync;
+    final Timer journalWrite;
+    final Timer journalFsync;
+    final DistributionSummary journalGroup;
+
+    TodoStoreMetrics(MeterRegistry registry) {
+        snapshotRead = timer("todo.store.snapshot.read", "Lecture et parsing du snapshot", registry);
+        snapshotWrite = timer("todo.store.snapshot.write", "Sérialisation et écriture du snapshot, fsync compris", registry);
+        snapshotFsync = Timer.builder("todo.store.fsync").description("fsync d'un fichier du store")
+                .tag("file", "snapshot").publishPercentileHistogram().register(registry);
+        journalWrite = timer("todo.journal.write", "Écriture d'un groupe d'enregistrements du journal", registry);
+        journalFsync = Timer.builder("todo.store.fsync").description("fsync d'un fichier du store")
+                .tag("file", "journal").publishPercentileHistogram().register(registry);
+        journalGroup = DistributionSummary.builder("todo.journal.group.records")
+                .description("Enregistrements écrits par groupe du journal").register(registry);
+    }
+
+    private static Timer timer(String name, String description, MeterRegistry registry) {
+        return Timer.builder(name).description(description).publishPercentileHistogram().register(registry);
+    }
+}
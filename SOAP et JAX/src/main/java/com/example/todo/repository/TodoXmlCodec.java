@@ -0,0 +1,155 @@
+package com.example.todo.repository;
+
+import com.example.todo.model.Todo;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Lecture et écriture en flux (StAX) du snapshot XML des todos.
+ * Les todos sont lus et écrits un par un : aucun document ni liste intermédiaire
+ * n'est construit, quelle que soit la taille du fichier.
+ */
+public final class TodoXmlCodec {
+
+    private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+    private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newFactory();
+
+    private TodoXmlCodec() {
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+
+    public static List<Todo> read(InputStream in) throws XMLStreamException {
+        List<Todo> todos = new ArrayList<>();
+        read(in, todos::add);
+        return todos;
+    }
+
+    /**
+     * Transmet chaque élément todo du document au consumer, dans l'ordre du fichier.
+     * Chaque todo doit avoir un id lisible et positif.
+     */
+    public static int read(InputStream in, Consumer<Todo> consumer) throws XMLStreamException {
+        return read(in, consumer, true);
+    }
+
+    /**
+     * Comme read, pour un import : le store attribue de nouveaux ids, ceux du document sont donc
+     * ignorés sans être validés (les todos transmis ont l'id 0).
+     */
+    public static int readIgnoringIds(InputStream in, Consumer<Todo> consumer) throws XMLStreamException {
+        return read(in, consumer, false);
+    }
+
+    private static int read(InputStream in, Consumer<Todo> consumer, boolean withIds) throws XMLStreamException {
+        XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(in);
+        int count = 0;
+        try {
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT && "todo".equals(reader.getLocalName())) {
+                    consumer.accept(readTodo(reader, withIds));
+                    count++;
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return count;
+    }
+
+    private static Todo readTodo(XMLStreamReader reader, boolean withIds) throws XMLStreamException {
+        Todo todo = new Todo();
+        boolean hasId = false;
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            } else if (event == XMLStreamConstants.START_ELEMENT) {
+                String name = reader.getLocalName();
+                switch (name) {
+                    case "id" -> {
+                        if (withIds) {
+                            todo.setId(readId(reader));
+                            hasId = true;
+                        } else {
+                            reader.getElementText();
+                        }
+                    }
+                    case "title" -> todo.setTitle(reader.getElementText());
+                    case "completed" -> todo.setCompleted(Boolean.parseBoolean(reader.getElementText().trim()));
+                    default -> depth++;
+                }
+            }
+        }
+        if (withIds && !hasId) {
+            throw new XMLStreamException("Todo sans id", reader.getLocation());
+        }
+        return todo;
+    }
+
+    // Un id absent, illisible ou négatif (fichier modifié à la main) rend le document invalide
+    private static int readId(XMLStreamReader reader) throws XMLStreamException {
+        String text = reader.getElementText().trim();
+        int id;
+        try {
+            id = Integer.parseInt(text);
+        } catch (NumberFormatException e) {
+            throw new XMLStreamException("Id de todo invalide : '" + text + "'", reader.getLocation(), e);
+        }
+        if (id < 0) {
+            throw new XMLStreamException("Id de todo négatif : " + id, reader.getLocation());
+        }
+        return id;
+    }
+
+    public static void write(Iterable<Todo> todos, OutputStream out) throws XMLStreamException {
+        XMLStreamWriter writer = OUTPUT_FACTORY.createXMLStreamWriter(out, "UTF-8");
+        try {
+            writer.writeStartDocument("UTF-8", "1.0");
+            writer.writeCharacters("\n");
+            writer.writeStartElement("todos");
+            for (Todo todo : todos) {
+                writer.writeCharacters("\n    ");
+                writer.writeStartElement("todo");
+                writeField(writer, "completed", Boolean.toString(todo.isCompleted()));
+                writeField(writer, "id", Integer.toString(todo.getId()));
+                if (todo.getTitle() != null) {
+                    writeField(writer, "title", todo.getTitle());
+                }
+                writer.writeCharacters("\n    ");
+                writer.writeEndElement();
+            }
+            writer.writeCharacters("\n");
+            writer.writeEndElement();
+            writer.writeCharacters("\n");
+            writer.writeEndDocument();
+            writer.flush();
+        } finally {
+            writer.close();
+        }
+    }
+
+    private static void writeField(XMLStreamWriter writer, String name, String value) throws XMLStreamException {
+        writer.writeCharacters("\n        ");
+        writer.writeStartElement(name);
+        writer.writeCharacters(value);
+        writer.writeEndElement();
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.todo.repository;
+
+import com.example.todo.model.Todo;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * Snapshot todos.xml lisible et éditable, lu et écrit en flux par TodoXmlCodec.
+ */
+public class XmlTodoRepository extends FileTodoRepository {
+
+    public XmlTodoRepository(Path path, long compactIntervalMs, int compactThreshold, double tombstoneRatio,
+                             long groupWindowMs, int groupSize) {
+        super(path, compactIntervalMs, compactThreshold, tombstoneRatio, groupWindowMs, groupSize);
+    }
+
+    @Override
+    protected void readSnapshot(Path file, Consumer<Todo> consumer) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            TodoXmlCodec.read(in, consumer);
+        } catch (XMLStreamException e) {
+            throw new IOException("todos.xml illisible : " + file, e);
+        }
+    }
+
+    @Override
+    protected void writeSnapshot(Collection<Todo> todos, Path file) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+            TodoXmlCodec.write(todos, out);
+        } catch (XMLStreamException e) {
+            throw new IOException("Écriture de " + file + " impossible", e);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.todo.service;
+
+import com.example.todo.repository.TodoMutation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Journal circulaire des dernières mutations, chacune numérotée par une version croissante.
+ * Les versions sont consécutives à partir de la base : la mutation de version v occupe
+ * la case (v - base - 1) modulo la capacité, ce qui évite de stocker les versions.
+ */
+class TodoChangeLog {
+
+    private final TodoMutation[] entries;
+    private final long base;
+    private long version;
+
+    TodoChangeLog(int capacity, long base) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity");
+        }
+        this.entries = new TodoMutation[capacity];
+        this.base = base;
+        this.version = base;
+    }
+
+    synchronized long version() {
+        return version;
+    }
+
+    synchronized long record(List<TodoMutation> mutations) {
+        for (TodoMutation mutation : mutations) {
+            entries[slot(++version)] = mutation;
+        }
+        return version;
+    }
+
+    private int slot(long v) {
+        return (int) ((v - base - 1) % entries.length);
+    }
+
+    /**
+     * Renvoie les mutations de version strictement supérieure à since, dans l'ordre,
+     * ou null si certaines ont déjà été écrasées ou si la version est inconnue.
+     */
+    synchronized List<TodoMutation> since(long since) {
+        long oldest = Math.max(base, version - entries.length);
+        if (since < oldest || since > version) {
+            return null;
+        }
+        List<TodoMutation> mutations = new ArrayList<>((int) (version - since));
+        for (long v = since + 1; v <= version; v++) {
+            mutations.add(entries[slot(v)]);
+        }
+        return mutations;
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.todo.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * Index inversé des titres : mot normalisé (minuscules, sans accents) -> ids triés.
+ * Chaque liste d'ids a son propre moniteur, si bien que des mises à jour sur des mots
+ * différents ne se bloquent pas. Une requête renvoie les ids dont le titre contient,
+ * pour chaque terme, un mot commençant par ce terme.
+ */
+class TodoSearchIndex {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final ConcurrentSkipListMap<String, Postings> words = new ConcurrentSkipListMap<>();
+
+    /**
+     * Découpe un texte en mots distincts, en minuscules et sans accents.
+     */
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        for (String token : SEPARATORS.split(folded)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    void add(int id, String title) {
+        for (String token : tokenize(title)) {
+            addPosting(token, id);
+        }
+    }
+
+    void remove(int id, String title) {
+        for (String token : tokenize(title)) {
+            removePosting(token, id);
+        }
+    }
+
+    void update(int id, String oldTitle, String newTitle) {
+        Set<String> before = tokenize(oldTitle);
+        Set<String> after = tokenize(newTitle);
+        for (String token : before) {
+            if (!after.contains(token)) {
+                removePosting(token, id);
+            }
+        }
+        for (String token : after) {
+            if (!before.contains(token)) {
+                addPosting(token, id);
+            }
+        }
+    }
+
+    void clear() {
+        words.clear();
+    }
+
+    private void addPosting(String token, int id) {
+        while (true) {
+            Postings postings = words.computeIfAbsent(token, t -> new Postings());
+            synchronized (postings) {
+                // Une liste vidée et retirée de la table ne doit plus recevoir d'ids
+                if (!postings.removed) {
+                    postings.add(id);
+                    return;
+                }
+            }
+        }
+    }
+
+    private void removePosting(String token, int id) {
+        Postings postings = words.get(token);
+        if (postings == null) {
+            return;
+        }
+        synchronized (postings) {
+            postings.remove(id);
+            if (postings.size == 0 && !postings.removed) {
+                postings.removed = true;
+                words.remove(token, postings);
+            }
+        }
+    }
+
+    /**
+     * Renvoie au plus limit ids par ordre croissant. Les listes des mots de chaque terme sont
+     * parcourues en saut (« leapfrog ») : seuls les ids candidats sont visités, jamais l'ensemble.
+     */
+    int[] search(String query, int limit) {
+        Set<String> terms = tokenize(query);
+        if (terms.isEmpty() || limit <= 0) {
+            return new int[0];
+        }
+        List<Collection<Postings>> matches = new ArrayList<>(terms.size());
+        for (String term : terms) {
+            Collection<Postings> postings = words.subMap(term, true, term + Character.MAX_VALUE, false).values();
+            if (postings.isEmpty()) {
+                return new int[0];
+            }
+            matches.add(postings);
+        }
+        int[] result = new int[Math.min(limit, 256)];
+        int count = 0;
+        int candidate = Integer.MIN_VALUE;
+        while (count < limit) {
+            boolean agreed = true;
+            for (Collection<Postings> term : matches) {
+                long next = nextAtLeast(term, candidate);
+                if (next == Long.MAX_VALUE) {
+                    return Arrays.copyOf(result, count);
+                }
+                if (next != candidate) {
+                    candidate = (int) next;
+                    agreed = false;
+                    break;
+                }
+            }
+            if (agreed) {
+                if (count == result.length) {
+                    result = Arrays.copyOf(result, Math.min(limit, count * 2));
+                }
+                result[count++] = candidate;
+                if (candidate == Integer.MAX_VALUE) {
+                    break;
+                }
+                candidate++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    // Plus petit id >= from parmi les listes d'un terme, Long.MAX_VALUE s'il n'y en a pas
+    private static long nextAtLeast(Collection<Postings> term, int from) {
+        long best = Long.MAX_VALUE;
+        for (Postings postings : term) {
+            synchronized (postings) {
+                int i = postings.indexOf(from);
+                if (i < 0) {
+                    i = -i - 1;
+                }
+                if (i < postings.size && postings.ids[i] < best) {
+                    best = postings.ids[i];
+                    if (best == from) {
+                        return best;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    // Ids triés d'un mot ; les ids étant séquentiels, un ajout se fait presque toujours en fin de tableau
+    private static final class Postings {
+        int[] ids = new int[4];
+        int size;
+        boolean removed;
+
+        int indexOf(int id) {
+            if (size > 0 && ids[size - 1] < id) {
+                return -size - 1;
+            }
+            return Arrays.binarySearch(ids, 0, size, id);
+        }
+
+        void add(int id) {
+            int i = indexOf(id);
+            if (i >= 0) {
+                return;
+            }
+            i = -i - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, i, ids, i + 1, size - i);
+            ids[i] = id;
+            size++;
+        }
+
+        void remove(int id) {
+            int i = indexOf(id);
+            if (i < 0) {
+                return;
+            }
+            System.arraycopy(ids, i + 1, ids, i, size - i - 1);
+            size--;
+        }
+    }
+}
@@ -1,124 +1,765 @@
 package com.example.todo.service;
 
 import com.example.todo.model.Todo;
-import jakarta.xml.bind.JAXBContext;
-import jakarta.xml.bind.JAXBException;
-import jakarta.xml.bind.Marshaller;
-import jakarta.xml.bind.Unmarshaller;
-import jakarta.xml.bind.annotation.XmlElement;
-import jakarta.xml.bind.annotation.XmlRootElement;
+import com.example.todo.model.TodoChanges;
+import com.example.todo.model.TodoImportReport;
+import com.example.todo.model.TodoPage;
+import com.example.todo.model.TodoResult;
+import com.example.todo.model.TodoStats;
+import com.example.todo.repository.TodoMutation;
+import com.example.todo.repository.TodoRepository;
+import com.example.todo.repository.TodoSnapshot;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 @Service
 public class TodoService {
 
-    private static final String XML_FILE_PATH = "src/main/resources/todos.xml";
+    @Autowired
+    private TodoRepository repository;
 
-    @XmlRootElement(name = "todos")
-    public static class TodoListWrapper {
-        private List<Todo> todos;
+    // Taille de page maximale acceptée par findPage
+    @Value("${todo.page.max-size:1000}")
+    private int maxPageSize;
 
-        public TodoListWrapper() {
-            this.todos = new ArrayList<>();
+    // Nombre de verrous entre lesquels les todos sont répartis (puissance de 2)
+    @Value("${todo.store.stripes:64}")
+    private int stripeCount;
+
+    // Nombre de mutations conservées pour getChangesSince
+    @Value("${todo.changes.capacity:10000}")
+    private int changeCapacity;
+
+    // Recharge le store quand son fichier est modifié hors de l'application
+    @Value("${todo.store.watch:true}")
+    private boolean watch;
+
+    // Les todos en mémoire font foi : le repository n'est relu qu'au démarrage,
+    // ou lorsque son fichier est modifié de l'extérieur (voir reload).
+    // Ils sont publiés dans un trie immuable remplacé atomiquement à chaque écriture :
+    // les lectures se font sans aucun verrou sur une version cohérente.
+    private final AtomicReference<TodoTrie> todos = new AtomicReference<>(TodoTrie.EMPTY);
+    // Les écritures restent réparties par id entre des verrous (stripes), ce qui ordonne
+    // les mutations d'un même id sans bloquer celles des autres ids
+    private ReentrantLock[] stripes;
+    private final AtomicInteger sequence = new AtomicInteger();
+    // Index des titres, tenu à jour sous le verrou de la stripe du todo modifié
+    private final TodoSearchIndex searchIndex = new TodoSearchIndex();
+    private TodoChangeLog changeLog;
+
+    private static final String ADDED = "Todo ajouté avec succès";
+    private static final String UPDATED = "Todo mis à jour avec succès";
+    private static final String UPDATE_NOT_FOUND = "Todo non trouvé";
+    private static final String DELETED = "Todo supprimé avec succès";
+    private static final String DELETE_NOT_FOUND = "Non trouvé";
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+
+    // Mutations par écriture dans le repository pendant un import, et écritures en attente au plus
+    private static final int IMPORT_CHUNK = 1024;
+    private static final int IMPORT_IN_FLIGHT = 2;
+
+    @PostConstruct
+    public void init() {
+        if (Integer.bitCount(stripeCount) != 1) {
+            throw new IllegalStateException("todo.store.stripes doit être une puissance de 2 : " + stripeCount);
         }
+        ReentrantLock[] initial = new ReentrantLock[stripeCount];
+        for (int i = 0; i < initial.length; i++) {
+            initial[i] = new ReentrantLock();
+        }
+        stripes = initial;
+        TodoTrie.Editor loaded = TodoTrie.EMPTY.edit();
+        repository.open(this::snapshot, mutation -> {
+            if (mutation.type() == TodoMutation.Type.DELETE) {
+                loaded.remove(mutation.id());
+            } else {
+                loaded.put(mutation.id(), mutation.toTodo());
+            }
+        });
+        TodoTrie trie = loaded.freeze();
+        int[] maxId = {0};
+        searchIndex.clear();
+        trie.forEach(todo -> {
+            searchIndex.add(todo.getId(), todo.getTitle());
+            maxId[0] = todo.getId();
+        });
+        todos.set(trie);
+        sequence.set(maxId[0]);
+        // Versions dérivées de l'heure de démarrage : elles restent croissantes d'un redémarrage à l'autre
+        changeLog = new TodoChangeLog(changeCapacity, System.currentTimeMillis() * 1000);
+        if (watch) {
+            repository.watch(this::reload);
+        }
+    }
 
-        public TodoListWrapper(List<Todo> todos) {
-            this.todos = todos;
+    // Contenu du stockage modifié de l'extérieur : il remplace tout le store, puis les mutations encore
+    // seulement journalisées y sont rejouées (elles ont été confirmées). Le trie du fichier est construit
+    // hors verrou ; sous les verrous, seules les différences avec le store courant sont appliquées
+    // à l'index et enregistrées dans le journal des changements (ce qui change aussi la version).
+    private void reload(List<Todo> loaded, Supplier<List<TodoMutation>> atCut) {
+        TodoTrie.Editor editor = TodoTrie.EMPTY.edit();
+        int maxId = 0;
+        for (Todo todo : loaded) {
+            editor.put(todo.getId(), todo);
+            maxId = Math.max(maxId, todo.getId());
+        }
+        TodoTrie file = editor.freeze();
+        lockAll();
+        try {
+            TodoTrie.Editor replay = file.edit();
+            for (TodoMutation mutation : atCut.get()) {
+                if (mutation.type() == TodoMutation.Type.DELETE) {
+                    replay.remove(mutation.id());
+                } else {
+                    replay.put(mutation.id(), mutation.toTodo());
+                    maxId = Math.max(maxId, mutation.id());
+                }
+            }
+            TodoTrie trie = replay.freeze();
+            TodoTrie previous = todos.getAndSet(trie);
+            List<TodoMutation> changes = new ArrayList<>();
+            Iterator<Todo> before = previous.iterator();
+            Iterator<Todo> after = trie.iterator();
+            Todo old = before.hasNext() ? before.next() : null;
+            Todo current = after.hasNext() ? after.next() : null;
+            while (old != null || current != null) {
+                if (current == null || (old != null && old.getId() < current.getId())) {
+                    searchIndex.remove(old.getId(), old.getTitle());
+                    changes.add(TodoMutation.delete(old.getId()));
+                    old = before.hasNext() ? before.next() : null;
+                } else if (old == null || current.getId() < old.getId()) {
+                    searchIndex.add(current.getId(), current.getTitle());
+                    changes.add(TodoMutation.add(current));
+                    current = after.hasNext() ? after.next() : null;
+                } else {
+                    if (!old.equals(current)) {
+                        searchIndex.update(current.getId(), old.getTitle(), current.getTitle());
+                        changes.add(TodoMutation.update(current));
+                    }
+                    old = before.hasNext() ? before.next() : null;
+                    current = after.hasNext() ? after.next() : null;
+                }
+            }
+            // Un id déjà attribué n'est jamais réutilisé, même s'il a disparu du fichier
+            sequence.accumulateAndGet(maxId, Math::max);
+            changeLog.record(changes);
+        } finally {
+            unlockAll();
         }
+    }
 
-        @XmlElement(name = "todo")
-        public List<Todo> getTodos() {
-            return todos;
+    @PreDestroy
+    public void shutdown() {
+        repository.close();
+    }
+
+    // Coupure cohérente pour le repository : aucune mutation ne peut être entre la mémoire et le stockage.
+    // Seule la racine du trie est relevée sous les verrous ; le repository la parcourt ensuite, sans
+    // bloquer personne et sans copie (un trie publié ne change plus).
+    private TodoSnapshot snapshot(BooleanSupplier atCut) {
+        TodoTrie cut;
+        lockAll();
+        try {
+            if (!atCut.getAsBoolean()) {
+                return null;
+            }
+            cut = todos.get();
+        } finally {
+            unlockAll();
+        }
+        return new TodoSnapshot() {
+            @Override
+            public Iterator<Todo> iterator() {
+                return cut.iterator();
+            }
+
+            @Override
+            public int size() {
+                return cut.size();
+            }
+
+            @Override
+            public int maxId() {
+                return cut.maxId();
+            }
+
+            @Override
+            public void forEachFrom(int fromId, Predicate<Todo> visitor) {
+                cut.forEachFrom(fromId, visitor);
+            }
+        };
+    }
+
+    private void lockAll() {
+        for (ReentrantLock stripe : stripes) {
+            stripe.lock();
         }
+    }
 
-        public void setTodos(List<Todo> todos) {
-            this.todos = todos;
+    private void unlockAll() {
+        for (int i = stripes.length - 1; i >= 0; i--) {
+            stripes[i].unlock();
         }
     }
 
-    private List<Todo> loadTodos() {
-        try {
-            File file = new File(XML_FILE_PATH);
-            if (!file.exists()) {
-                return new ArrayList<>();
+    private ReentrantLock stripe(int id) {
+        return stripes[id & (stripes.length - 1)];
+    }
+
+    // Verrouille en écriture les stripes des ids, dans l'ordre des stripes pour éviter tout interblocage
+    private boolean[] lockStripes(int[] ids) {
+        boolean[] locked = new boolean[stripes.length];
+        for (int id : ids) {
+            locked[id & (stripes.length - 1)] = true;
+        }
+        for (int i = 0; i < locked.length; i++) {
+            if (locked[i]) {
+                stripes[i].lock();
             }
+        }
+        return locked;
+    }
 
-            JAXBContext context = JAXBContext.newInstance(TodoListWrapper.class);
-            Unmarshaller unmarshaller = context.createUnmarshaller();
-            TodoListWrapper wrapper = (TodoListWrapper) unmarshaller.unmarshal(file);
-            return wrapper.getTodos() != null ? wrapper.getTodos() : new ArrayList<>();
-        } catch (JAXBException e) {
-            e.printStackTrace();
-            return new ArrayList<>();
+    private void unlockStripes(boolean[] locked) {
+        for (int i = locked.length - 1; i >= 0; i--) {
+            if (locked[i]) {
+                stripes[i].unlock();
+            }
         }
     }
 
-    private void saveTodos(List<Todo> todos) {
+    // Appelé sous le verrou des stripes concernées, ce qui ordonne les mutations par id.
+    // La durabilité est attendue par awaitDurable une fois les verrous relâchés, pour que
+    // les écritures concurrentes puissent rejoindre le même groupe du journal.
+    private CompletableFuture<Void> persist(List<TodoMutation> mutations) {
+        if (mutations.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<Void> durable;
         try {
-            JAXBContext context = JAXBContext.newInstance(TodoListWrapper.class);
-            Marshaller marshaller = context.createMarshaller();
-            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
+            durable = repository.append(mutations);
+        } catch (RuntimeException e) {
+            // Refus immédiat (journal fermé) : traité comme un échec d'écriture, déjà publié
+            durable = CompletableFuture.failedFuture(e);
+        }
+        changeLog.record(mutations);
+        return durable;
+    }
 
-            TodoListWrapper wrapper = new TodoListWrapper(todos);
-            File file = new File(XML_FILE_PATH);
-            file.getParentFile().mkdirs();
-            marshaller.marshal(wrapper, file);
-        } catch (JAXBException e) {
-            e.printStackTrace();
+    /**
+     * Attend que l'écriture soit durable. En cas d'échec, elle n'est pas dans le journal (voir
+     * TodoJournal.sync) : elle est retirée de la mémoire par rollback avant de remonter l'erreur,
+     * pour qu'aucune lecture ne continue de la montrer ni qu'une compaction ne l'enregistre.
+     */
+    private void awaitDurable(CompletableFuture<Void> durable, Supplier<List<Undo>> undos) {
+        try {
+            durable.join();
+        } catch (CompletionException e) {
+            rollback(undos.get());
+            throw new IllegalStateException("Écriture des todos impossible", e.getCause());
         }
     }
 
+    // Valeur d'un id avant et après une écriture (null : absent), pour l'annuler si elle échoue
+    private record Undo(int id, Todo previous, Todo written) {
+    }
+
+    // Chaque id qui porte encore la valeur écrite reprend sa valeur précédente ; un id réécrit depuis
+    // par une autre écriture est laissé tel quel. Le retour arrière est une mutation comme une autre
+    // (version, getChangesSince, cache des réponses) et il est journalisé sans être attendu : il
+    // corrige aussi un snapshot qui aurait été écrit entre la publication et l'échec.
+    private void rollback(List<Undo> undos) {
+        boolean[] locked = lockStripes(undos.stream().mapToInt(Undo::id).toArray());
+        try {
+            TodoTrie current = todos.get();
+            List<Undo> applied = undos.stream()
+                    .filter(undo -> Objects.equals(current.get(undo.id()), undo.written()))
+                    .toList();
+            todos.updateAndGet(trie -> {
+                TodoTrie.Editor editor = trie.edit();
+                for (Undo undo : applied) {
+                    if (undo.previous() == null) {
+                        editor.remove(undo.id());
+                    } else {
+                        editor.put(undo.id(), undo.previous());
+                    }
+                }
+                return editor.freeze();
+            });
+            List<TodoMutation> mutations = new ArrayList<>(applied.size());
+            for (Undo undo : applied) {
+                if (undo.previous() == null) {
+                    searchIndex.remove(undo.id(), undo.written().getTitle());
+                    mutations.add(TodoMutation.delete(undo.id()));
+                } else if (undo.written() == null) {
+                    searchIndex.add(undo.id(), undo.previous().getTitle());
+                    mutations.add(TodoMutation.add(undo.previous()));
+                } else {
+                    searchIndex.update(undo.id(), undo.written().getTitle(), undo.previous().getTitle());
+                    mutations.add(TodoMutation.update(undo.previous()));
+                }
+            }
+            persist(mutations);
+        } finally {
+            unlockStripes(locked);
+        }
+    }
+
+    /**
+     * Version courante du store : elle augmente à chaque mutation, après sa publication en mémoire.
+     */
+    public long version() {
+        return changeLog.version();
+    }
+
+    /**
+     * Renvoie l'état final des todos ajoutés ou modifiés et les ids supprimés depuis la version donnée.
+     * Si ces changements ne sont plus dans le journal (ou la version est inconnue), la réponse
+     * demande au client un rechargement complet et porte la version à partir de laquelle reprendre.
+     */
+    public TodoChanges changesSince(long version) {
+        List<TodoMutation> mutations = changeLog.since(version);
+        if (mutations == null) {
+            return new TodoChanges(changeLog.version(), true, new ArrayList<>(), new ArrayList<>());
+        }
+        Map<Integer, TodoMutation> latest = new LinkedHashMap<>();
+        for (TodoMutation mutation : mutations) {
+            latest.remove(mutation.id());
+            latest.put(mutation.id(), mutation);
+        }
+        List<Todo> todos = new ArrayList<>();
+        List<Integer> deletedIds = new ArrayList<>();
+        for (TodoMutation mutation : latest.values()) {
+            if (mutation.type() == TodoMutation.Type.DELETE) {
+                deletedIds.add(mutation.id());
+            } else {
+                todos.add(mutation.toTodo());
+            }
+        }
+        return new TodoChanges(version + mutations.size(), false, todos, deletedIds);
+    }
+
     public List<Todo> findAll() {
-        return loadTodos();
+        return todos.get().toList();
+    }
+
+    /**
+     * Vue en lecture seule de la version courante du store, parcourue par id croissant sans copie :
+     * les écritures ultérieures n'y apparaissent pas.
+     */
+    public Iterable<Todo> iterateAll() {
+        return todos.get();
+    }
+
+    /**
+     * Même vue que iterateAll sous forme de List, pour les sérialiseurs qui l'exigent (JAXB pour
+     * getAll) : les todos sont créés un par un pendant le parcours, jamais tous à la fois.
+     * L'accès par index reparcourt le store depuis le début.
+     */
+    public List<Todo> viewAll() {
+        TodoTrie current = todos.get();
+        return new AbstractList<>() {
+            @Override
+            public Iterator<Todo> iterator() {
+                return current.iterator();
+            }
+
+            @Override
+            public Todo get(int index) {
+                Objects.checkIndex(index, size());
+                Todo[] found = new Todo[1];
+                int[] remaining = {index};
+                current.forEachFrom(0, todo -> {
+                    if (remaining[0]-- == 0) {
+                        found[0] = todo;
+                        return false;
+                    }
+                    return true;
+                });
+                return found[0];
+            }
+
+            @Override
+            public int size() {
+                return current.size();
+            }
+        };
+    }
+
+    /**
+     * Nombre de todos, terminés et en cours, lus sur les compteurs du trie sans parcours.
+     */
+    public TodoStats stats() {
+        TodoTrie current = todos.get();
+        return new TodoStats(current.size(), current.completedCount());
+    }
+
+    /**
+     * Renvoie au plus pageSize todos d'id supérieur à celui encodé dans le jeton, par id croissant,
+     * éventuellement filtrés sur leur état. La page est lue dans une seule version du trie ; avec
+     * un filtre, les sous-arbres sans todo dans cet état sont sautés grâce aux compteurs du trie,
+     * si bien que le coût dépend de la taille de la page et non de la sélectivité du filtre.
+     */
+    public TodoPage findPage(int pageSize, String pageToken, Boolean completed) {
+        int size = pageSize <= 0 ? DEFAULT_PAGE_SIZE : Math.min(pageSize, maxPageSize);
+        int lastId = decodePageToken(pageToken);
+        List<Todo> page = new ArrayList<>(Math.min(size, 256));
+        boolean complete = lastId == Integer.MAX_VALUE || todos.get().forEachFrom(lastId + 1, completed, todo -> {
+            if (page.size() >= size) {
+                return false;
+            }
+            page.add(todo);
+            return true;
+        });
+        return new TodoPage(page, complete ? null : encodePageToken(page.get(page.size() - 1).getId()));
+    }
+
+    private static String encodePageToken(int lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(("v1:" + lastId).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static int decodePageToken(String pageToken) {
+        if (pageToken == null || pageToken.isBlank()) {
+            return 0;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(pageToken), StandardCharsets.US_ASCII);
+            if (decoded.startsWith("v1:")) {
+                return Integer.parseInt(decoded.substring(3));
+            }
+        } catch (IllegalArgumentException e) {
+            // jeton invalide, signalé ci-dessous
+        }
+        throw new IllegalArgumentException("Jeton de page invalide : " + pageToken);
     }
 
     public Todo findById(int id) {
-        return loadTodos().stream()
-                .filter(todo -> todo.getId() == id)
-                .findFirst()
-                .orElse(null);
+        return todos.get().get(id);
+    }
+
+    /**
+     * Recherche plein texte sur les titres : chaque mot de la requête doit préfixer un mot du titre,
+     * sans tenir compte de la casse ni des accents. Résultats par id croissant.
+     */
+    public List<Todo> search(String query, int limit) {
+        int size = limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, maxPageSize);
+        int[] ids = searchIndex.search(query, size);
+        List<Todo> todos = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            Todo todo = findById(id);
+            if (todo != null) {
+                todos.add(todo);
+            }
+        }
+        return todos;
     }
 
     public String add(Todo todo) {
-        List<Todo> todos = loadTodos();
-        int maxId = todos.stream()
-                .mapToInt(Todo::getId)
-                .max()
-                .orElse(0);
-        todo.setId(maxId + 1);
-        todos.add(todo);
-        saveTodos(todos);
-        return "Todo ajouté avec succès";
+        int id = sequence.incrementAndGet();
+        todo.setId(id);
+        ReentrantLock stripe = stripe(id);
+        CompletableFuture<Void> durable;
+        stripe.lock();
+        try {
+            todos.updateAndGet(trie -> trie.put(id, todo));
+            searchIndex.add(id, todo.getTitle());
+            durable = persist(List.of(TodoMutation.add(todo)));
+        } finally {
+            stripe.unlock();
+        }
+        awaitDurable(durable, () -> List.of(new Undo(id, null, todo)));
+        return ADDED;
     }
 
     public String update(Todo todo) {
-        List<Todo> todos = loadTodos();
-        boolean found = false;
-        for (int i = 0; i < todos.size(); i++) {
-            if (todos.get(i).getId() == todo.getId()) {
-                todos.set(i, todo);
-                found = true;
-                break;
+        ReentrantLock stripe = stripe(todo.getId());
+        CompletableFuture<Void> durable;
+        Todo previous;
+        stripe.lock();
+        try {
+            // Sous le verrou de sa stripe, personne d'autre ne peut modifier cet id
+            previous = todos.get().get(todo.getId());
+            if (previous == null) {
+                return UPDATE_NOT_FOUND;
             }
+            todos.updateAndGet(trie -> trie.put(todo.getId(), todo));
+            searchIndex.update(todo.getId(), previous.getTitle(), todo.getTitle());
+            durable = persist(List.of(TodoMutation.update(todo)));
+        } finally {
+            stripe.unlock();
         }
-        if (!found) {
-            return "Todo non trouvé";
-        }
-        saveTodos(todos);
-        return "Todo mis à jour avec succès";
+        awaitDurable(durable, () -> List.of(new Undo(todo.getId(), previous, todo)));
+        return UPDATED;
     }
 
     public String delete(int id) {
-        List<Todo> todos = loadTodos();
-        boolean removed = todos.removeIf(todo -> todo.getId() == id);
-        if (!removed) {
-            return "Non trouvé";
+        ReentrantLock stripe = stripe(id);
+        CompletableFuture<Void> durable;
+        Todo removed;
+        stripe.lock();
+        try {
+            removed = todos.get().get(id);
+            if (removed == null) {
+                return DELETE_NOT_FOUND;
+            }
+            todos.updateAndGet(trie -> trie.remove(id));
+            searchIndex.remove(id, removed.getTitle());
+            durable = persist(List.of(TodoMutation.delete(id)));
+        } finally {
+            stripe.unlock();
+        }
+        awaitDurable(durable, () -> List.of(new Undo(id, removed, null)));
+        return DELETED;
+    }
+
+    /**
+     * Ajoute les todos en un seul lot : ids consécutifs, une seule écriture dans le repository.
+     */
+    public List<TodoResult> addAll(List<Todo> todos) {
+        insertAll(todos);
+        List<TodoResult> results = new ArrayList<>(todos.size());
+        for (Todo todo : todos) {
+            results.add(new TodoResult(todo.getId(), true, ADDED));
+        }
+        return results;
+    }
+
+    /**
+     * Import en masse : comme addAll, sans résultat par todo (voir Importer). Renvoie le nombre
+     * de todos ajoutés ; leurs ids sont consécutifs à partir de celui du premier.
+     */
+    public int importAll(List<Todo> todos) {
+        Importer importer = importer();
+        todos.forEach(importer::add);
+        return importer.commit().imported();
+    }
+
+    /**
+     * Prépare un import lu en flux, dont rien n'est visible ni écrit avant commit.
+     */
+    public Importer importer() {
+        return new Importer();
+    }
+
+    /**
+     * Import en masse sans liste intermédiaire : les todos passés à add sont rangés au fil de la
+     * lecture dans un trie de préparation (titres en colonnes, aucun objet Todo conservé), puis
+     * commit leur attribue des ids consécutifs, les publie en une seule fois et les journalise par
+     * lots de IMPORT_CHUNK mutations, avec au plus IMPORT_IN_FLIGHT lots en attente d'écriture.
+     * La mémoire de l'import est donc celle de son trie, pas trois copies du document.
+     *
+     * Contrepartie des lots : après un arrêt brutal pendant commit, seuls les lots déjà durables
+     * sont rejoués au redémarrage. Si un lot ne peut pas être écrit, tout l'import est retiré
+     * (voir rollback). Les autres écritures n'attendent que la publication et la mise en file du
+     * premier lot : les lots suivants sont journalisés après, chacun sous les verrous de ses ids.
+     */
+    public final class Importer {
+
+        private final TodoTrie.Editor staged = TodoTrie.EMPTY.edit();
+        private int count;
+
+        private Importer() {
+        }
+
+        public void add(Todo todo) {
+            staged.put(count++, todo);
+        }
+
+        public TodoImportReport commit() {
+            if (count == 0) {
+                return new TodoImportReport(0, 0, 0);
+            }
+            TodoTrie pending = staged.freeze();
+            int first = sequence.getAndAdd(count) + 1;
+            List<CompletableFuture<Void>> chunks = new ArrayList<>();
+            lockAll();
+            try {
+                TodoTrie.Editor editor = todos.get().edit();
+                pending.forEach(todo -> {
+                    editor.put(first + todo.getId(), todo);
+                    searchIndex.add(first + todo.getId(), todo.getTitle());
+                });
+                todos.set(editor.freeze());
+                chunks.add(persistChunk(chunkIds(first, 0)));
+            } finally {
+                unlockAll();
+            }
+            for (int from = IMPORT_CHUNK; from < count; from += IMPORT_CHUNK) {
+                if (chunks.size() >= IMPORT_IN_FLIGHT) {
+                    // Attente seulement : un échec est traité avec les autres à la fin
+                    chunks.get(chunks.size() - IMPORT_IN_FLIGHT).handle((done, failure) -> null).join();
+                }
+                int[] ids = chunkIds(first, from);
+                boolean[] locked = lockStripes(ids);
+                try {
+                    chunks.add(persistChunk(ids));
+                } finally {
+                    unlockStripes(locked);
+                }
+            }
+            // Un lot en échec annule tout l'import
+            awaitDurable(CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0])), () -> {
+                List<Undo> undos = new ArrayList<>(count);
+                pending.forEach(todo -> undos.add(new Undo(first + todo.getId(), null,
+                        new Todo(first + todo.getId(), todo.getTitle(), todo.isCompleted()))));
+                return undos;
+            });
+            return new TodoImportReport(count, first, first + count - 1);
+        }
+
+        private int[] chunkIds(int first, int from) {
+            int[] ids = new int[Math.min(IMPORT_CHUNK, count - from)];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = first + from + i;
+            }
+            return ids;
+        }
+
+        // L'appelant tient les verrous des ids. Les todos sont relus dans le store : un id déjà modifié
+        // depuis la publication est journalisé dans son état courant (sa mutation précède dans le
+        // journal), un id déjà supprimé ne l'est pas.
+        private CompletableFuture<Void> persistChunk(int[] ids) {
+            TodoTrie current = todos.get();
+            List<TodoMutation> chunk = new ArrayList<>(ids.length);
+            for (int id : ids) {
+                Todo todo = current.get(id);
+                if (todo != null) {
+                    chunk.add(TodoMutation.add(todo));
+                }
+            }
+            return persist(chunk);
+        }
+    }
+
+    private void insertAll(List<Todo> todos) {
+        if (todos.isEmpty()) {
+            return;
+        }
+        int first = sequence.getAndAdd(todos.size()) + 1;
+        int[] ids = new int[todos.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = first + i;
+            todos.get(i).setId(ids[i]);
+        }
+        List<TodoMutation> mutations = new ArrayList<>(todos.size());
+        CompletableFuture<Void> durable;
+        boolean[] locked = lockStripes(ids);
+        try {
+            this.todos.updateAndGet(trie -> {
+                TodoTrie.Editor editor = trie.edit();
+                todos.forEach(todo -> editor.put(todo.getId(), todo));
+                return editor.freeze();
+            });
+            for (Todo todo : todos) {
+                searchIndex.add(todo.getId(), todo.getTitle());
+                mutations.add(TodoMutation.add(todo));
+            }
+            durable = persist(mutations);
+        } finally {
+            unlockStripes(locked);
+        }
+        awaitDurable(durable, () -> todos.stream().map(todo -> new Undo(todo.getId(), null, todo)).toList());
+    }
+
+    /**
+     * Met à jour les todos existants en un seul lot ; les ids inconnus sont signalés sans bloquer le reste.
+     */
+    public List<TodoResult> updateAll(List<Todo> todos) {
+        List<TodoResult> results = new ArrayList<>(todos.size());
+        List<TodoMutation> mutations = new ArrayList<>(todos.size());
+        CompletableFuture<Void> durable;
+        List<Undo> undos = new ArrayList<>();
+        boolean[] locked = lockStripes(todos.stream().mapToInt(Todo::getId).toArray());
+        try {
+            // Dernier état de chaque id dans le lot, pour qu'un id répété s'applique dans l'ordre
+            Map<Integer, Todo> found = new HashMap<>();
+            Map<Integer, Todo> before = new HashMap<>();
+            TodoTrie current = this.todos.get();
+            for (Todo todo : todos) {
+                Todo previous = found.containsKey(todo.getId()) ? found.get(todo.getId()) : current.get(todo.getId());
+                if (previous == null) {
+                    results.add(new TodoResult(todo.getId(), false, UPDATE_NOT_FOUND));
+                    continue;
+                }
+                found.put(todo.getId(), todo);
+                before.putIfAbsent(todo.getId(), previous);
+                searchIndex.update(todo.getId(), previous.getTitle(), todo.getTitle());
+                mutations.add(TodoMutation.update(todo));
+                results.add(new TodoResult(todo.getId(), true, UPDATED));
+            }
+            this.todos.updateAndGet(trie -> {
+                TodoTrie.Editor editor = trie.edit();
+                found.forEach(editor::put);
+                return editor.freeze();
+            });
+            found.forEach((id, todo) -> undos.add(new Undo(id, before.get(id), todo)));
+            durable = persist(mutations);
+        } finally {
+            unlockStripes(locked);
+        }
+        awaitDurable(durable, () -> undos);
+        return results;
+    }
+
+    /**
+     * Supprime les todos en un seul lot ; les ids inconnus sont signalés sans bloquer le reste.
+     */
+    public List<TodoResult> deleteAll(List<Integer> ids) {
+        List<TodoResult> results = new ArrayList<>(ids.size());
+        List<TodoMutation> mutations = new ArrayList<>(ids.size());
+        CompletableFuture<Void> durable;
+        List<Undo> undos = new ArrayList<>();
+        boolean[] locked = lockStripes(ids.stream().mapToInt(Integer::intValue).toArray());
+        try {
+            Set<Integer> deleted = new HashSet<>();
+            TodoTrie current = todos.get();
+            for (int id : ids) {
+                Todo removed = current.get(id);
+                if (removed == null || !deleted.add(id)) {
+                    results.add(new TodoResult(id, false, DELETE_NOT_FOUND));
+                    continue;
+                }
+                searchIndex.remove(id, removed.getTitle());
+                mutations.add(TodoMutation.delete(id));
+                undos.add(new Undo(id, removed, null));
+                results.add(new TodoResult(id, true, DELETED));
+            }
+            todos.updateAndGet(trie -> {
+                TodoTrie.Editor editor = trie.edit();
+                deleted.forEach(editor::remove);
+                return editor.freeze();
+            });
+            durable = persist(mutations);
+        } finally {
+            unlockStripes(locked);
         }
-        saveTodos(todos);
-        return "Todo supprimé avec succès";
+        awaitDurable(durable, () -> undos);
+        return results;
     }
 }
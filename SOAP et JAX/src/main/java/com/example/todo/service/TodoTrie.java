@@ -0,0 +1,583 @@
+package com.example.todo.service;
+
+import com.example.todo.model.Todo;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Table id -> Todo immuable et persistante : un trie de branchement 32 sur les bits de l'id
+ * (ids positifs ou nuls). Une modification ne recopie que le chemin de la racine à la feuille,
+ * le reste de l'arbre est partagé avec la version précédente ; une instance publiée ne change
+ * donc jamais et peut être lue sans verrou. Le parcours se fait par id croissant.
+ *
+ * Les feuilles sont stockées en colonnes plutôt qu'en objets : pour 32 ids consécutifs, un masque
+ * de présence (l'id est implicite), un masque des todos terminés et les titres UTF-8 concaténés.
+ * Les objets Todo ne sont créés qu'à la lecture, et les modifier n'a aucun effet sur le store.
+ * Une suppression ne fait que marquer l'entrée comme morte (les lectures la sautent) ; les titres
+ * de la feuille ne sont réécrits que lorsque les entrées mortes y deviennent majoritaires, et une
+ * branche qui ne contient plus aucun todo est détachée de l'arbre.
+ *
+ * Chaque nœud compte les todos de son sous-arbre, et parmi eux les terminés : les compteurs
+ * globaux sont ceux de la racine (O(1)), et un parcours filtré sur l'état saute les sous-arbres
+ * sans todo correspondant.
+ *
+ * Editor permet d'enchaîner de nombreuses modifications (chargement, lots) en modifiant
+ * sur place les nœuds qu'il a lui-même créés, avant de figer le résultat.
+ */
+final class TodoTrie implements Iterable<Todo> {
+
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+
+    private static final byte[] NO_TITLES = new byte[0];
+
+    static final TodoTrie EMPTY = new TodoTrie(new Leaf(null), 0);
+
+    private static final class Node {
+        // Nœuds du niveau inférieur, ou feuilles sous le dernier niveau
+        final Object[] slots;
+        // Propriétaire autorisé à modifier ce nœud sur place (null : nœud figé)
+        final Object edit;
+        // Todos du sous-arbre, dont terminés
+        int count;
+        int completed;
+
+        Node(Object edit) {
+            this.slots = new Object[WIDTH];
+            this.edit = edit;
+        }
+
+        Node(Node other, Object edit) {
+            this.slots = other.slots.clone();
+            this.edit = edit;
+            this.count = other.count;
+            this.completed = other.completed;
+        }
+    }
+
+    /**
+     * 32 ids consécutifs. Chaque case de entries a une entrée dans titles : le titre précédé de sa
+     * longueur + 1 en varint (0 : titre null), dans l'ordre des cases. present est inclus dans
+     * entries ; les autres entrées sont mortes. Le tableau des titres n'est jamais modifié : il est remplacé.
+     */
+    private static final class Leaf {
+        final Object edit;
+        int entries;
+        int present;
+        int completed;
+        byte[] titles;
+
+        Leaf(Object edit) {
+            this.edit = edit;
+            this.titles = NO_TITLES;
+        }
+
+        Leaf(Leaf other, Object edit) {
+            this.edit = edit;
+            this.entries = other.entries;
+            this.present = other.present;
+            this.completed = other.completed;
+            this.titles = other.titles;
+        }
+    }
+
+    private static int count(Object node) {
+        return node instanceof Leaf leaf ? Integer.bitCount(leaf.present) : ((Node) node).count;
+    }
+
+    private static int completed(Object node) {
+        return node instanceof Leaf leaf ? Integer.bitCount(leaf.completed) : ((Node) node).completed;
+    }
+
+    // Nombre de todos du sous-arbre dans l'état demandé (tous si null)
+    private static int matching(Object node, Boolean state) {
+        int count = count(node);
+        return state == null ? count : state ? completed(node) : count - completed(node);
+    }
+
+    private final Object root;
+    // Décalage du niveau racine : la racine couvre les ids de 0 à 2^(shift + BITS) - 1
+    private final int shift;
+
+    private TodoTrie(Object root, int shift) {
+        this.root = root;
+        this.shift = shift;
+    }
+
+    int size() {
+        return count(root);
+    }
+
+    int completedCount() {
+        return completed(root);
+    }
+
+    // Plus grand id présent (0 si vide) : descend par la dernière branche non vide de chaque niveau
+    int maxId() {
+        Object node = root;
+        int id = 0;
+        for (int level = shift; level > 0; level -= BITS) {
+            Object[] slots = ((Node) node).slots;
+            int i = WIDTH - 1;
+            while (i >= 0 && (slots[i] == null || count(slots[i]) == 0)) {
+                i--;
+            }
+            if (i < 0) {
+                return 0;
+            }
+            id |= i << level;
+            node = slots[i];
+        }
+        int present = ((Leaf) node).present;
+        return present == 0 ? 0 : id | (31 - Integer.numberOfLeadingZeros(present));
+    }
+
+    private static boolean covers(int shift, int id) {
+        return shift + BITS >= 32 || (id >>> (shift + BITS)) == 0;
+    }
+
+    private static Leaf leafOf(Object root, int shift, int id) {
+        if (id < 0 || !covers(shift, id)) {
+            return null;
+        }
+        Object node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = ((Node) node).slots[(id >>> level) & MASK];
+            if (node == null) {
+                return null;
+            }
+        }
+        return (Leaf) node;
+    }
+
+    Todo get(int id) {
+        Leaf leaf = leafOf(root, shift, id);
+        int bit = 1 << (id & MASK);
+        if (leaf == null || (leaf.present & bit) == 0) {
+            return null;
+        }
+        int position = skip(leaf.titles, 0, Integer.bitCount(leaf.entries & (bit - 1)));
+        return decode(leaf, id, position, new int[1]);
+    }
+
+    // Position de l'entrée qui suit les n entrées commençant à position
+    private static int skip(byte[] titles, int position, int n) {
+        for (int i = 0; i < n; i++) {
+            int header = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = titles[position++];
+                header |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            position += Math.max(header - 1, 0);
+        }
+        return position;
+    }
+
+    // Lit le todo de l'entrée à position ; next[0] reçoit la position de l'entrée suivante
+    private static Todo decode(Leaf leaf, int id, int position, int[] next) {
+        byte[] titles = leaf.titles;
+        int header = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = titles[position++];
+            header |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        String title = null;
+        if (header > 0) {
+            title = new String(titles, position, header - 1, StandardCharsets.UTF_8);
+            position += header - 1;
+        }
+        next[0] = position;
+        return new Todo(id, title, (leaf.completed & (1 << (id & MASK))) != 0);
+    }
+
+    TodoTrie put(int id, Todo todo) {
+        Editor editor = new Editor(this, null);
+        editor.put(id, todo);
+        return editor.freeze();
+    }
+
+    TodoTrie remove(int id) {
+        Editor editor = new Editor(this, null);
+        editor.remove(id);
+        return editor.freeze();
+    }
+
+    Editor edit() {
+        return new Editor(this, new Object());
+    }
+
+    @Override
+    public void forEach(Consumer<? super Todo> consumer) {
+        forEachFrom(0, todo -> {
+            consumer.accept(todo);
+            return true;
+        });
+    }
+
+    /**
+     * Parcourt par id croissant les todos d'id >= fromId tant que visitor renvoie true.
+     * Renvoie false si le parcours a été interrompu.
+     */
+    boolean forEachFrom(int fromId, Predicate<Todo> visitor) {
+        return forEachFrom(fromId, null, visitor);
+    }
+
+    /**
+     * Comme forEachFrom, limité aux todos dans l'état demandé (tous si null) ; les sous-arbres
+     * qui n'en contiennent aucun ne sont pas visités.
+     */
+    boolean forEachFrom(int fromId, Boolean completed, Predicate<Todo> visitor) {
+        if (fromId < 0) {
+            fromId = 0;
+        }
+        if (!covers(shift, fromId)) {
+            return true;
+        }
+        return walk(root, shift, 0, fromId, true, completed, visitor);
+    }
+
+    private static boolean walk(Object node, int level, int prefix, int fromId, boolean bounded, Boolean completed,
+                                Predicate<Todo> visitor) {
+        int start = bounded ? (fromId >>> level) & MASK : 0;
+        if (level == 0) {
+            return walkLeaf((Leaf) node, prefix, start, completed, visitor);
+        }
+        Object[] slots = ((Node) node).slots;
+        for (int i = start; i < WIDTH; i++) {
+            Object child = slots[i];
+            if (child != null && matching(child, completed) > 0
+                    && !walk(child, level - BITS, prefix | (i << level), fromId, bounded && i == start,
+                    completed, visitor)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean walkLeaf(Leaf leaf, int prefix, int start, Boolean completed, Predicate<Todo> visitor) {
+        int[] position = {skip(leaf.titles, 0, Integer.bitCount(leaf.entries & ((1 << start) - 1)))};
+        int remaining = leaf.entries & (-1 << start);
+        while (remaining != 0) {
+            int slot = Integer.numberOfTrailingZeros(remaining);
+            remaining &= remaining - 1;
+            if ((leaf.present & (1 << slot)) == 0
+                    || (completed != null && ((leaf.completed & (1 << slot)) != 0) != completed)) {
+                position[0] = skip(leaf.titles, position[0], 1);
+            } else if (!visitor.test(decode(leaf, prefix | slot, position[0], position))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Itère par id croissant sans rien copier, pour écrire le store en flux.
+     */
+    @Override
+    public Iterator<Todo> iterator() {
+        return new TrieIterator();
+    }
+
+    private final class TrieIterator implements Iterator<Todo> {
+
+        // Chemin en cours : nœud de chaque niveau, premier id qu'il couvre et prochaine case à examiner
+        private final Object[] nodes = new Object[shift / BITS + 1];
+        private final int[] prefixes = new int[nodes.length];
+        private final int[] positions = new int[nodes.length];
+        private int depth;
+        // Feuille en cours : cases restant à lire et position de la prochaine entrée
+        private int remaining;
+        private final int[] titlePosition = new int[1];
+        private Todo next;
+
+        TrieIterator() {
+            enter(0, root, 0);
+            advance();
+        }
+
+        private void enter(int depth, Object node, int prefix) {
+            this.depth = depth;
+            nodes[depth] = node;
+            prefixes[depth] = prefix;
+            positions[depth] = 0;
+            if (node instanceof Leaf leaf) {
+                remaining = leaf.entries;
+                titlePosition[0] = 0;
+            }
+        }
+
+        private void advance() {
+            next = null;
+            while (depth >= 0) {
+                if (nodes[depth] instanceof Leaf leaf) {
+                    if (remaining == 0) {
+                        depth--;
+                        continue;
+                    }
+                    int slot = Integer.numberOfTrailingZeros(remaining);
+                    remaining &= remaining - 1;
+                    if ((leaf.present & (1 << slot)) == 0) {
+                        titlePosition[0] = skip(leaf.titles, titlePosition[0], 1);
+                        continue;
+                    }
+                    next = decode(leaf, prefixes[depth] | slot, titlePosition[0], titlePosition);
+                    return;
+                }
+                if (positions[depth] == WIDTH) {
+                    depth--;
+                    continue;
+                }
+                int i = positions[depth]++;
+                Object child = ((Node) nodes[depth]).slots[i];
+                if (child != null && count(child) > 0) {
+                    int level = shift - depth * BITS;
+                    enter(depth + 1, child, prefixes[depth] | (i << level));
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Todo next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Todo todo = next;
+            advance();
+            return todo;
+        }
+    }
+
+    List<Todo> toList() {
+        List<Todo> todos = new ArrayList<>(size());
+        forEach(todos::add);
+        return todos;
+    }
+
+    /**
+     * Copie modifiable d'un trie. Avec un propriétaire non null, les nœuds déjà copiés par cet
+     * éditeur sont modifiés sur place ; avec null, chaque modification recopie son chemin.
+     */
+    static final class Editor {
+
+        private final Object edit;
+        private boolean frozen;
+        private Object root;
+        private int shift;
+
+        private Editor(TodoTrie trie, Object edit) {
+            this.edit = edit;
+            this.root = trie.root;
+            this.shift = trie.shift;
+        }
+
+        private void checkNotFrozen() {
+            if (frozen) {
+                throw new IllegalStateException("Editor déjà figé");
+            }
+        }
+
+        private Node editable(Node node) {
+            return edit != null && node.edit == edit ? node : new Node(node, edit);
+        }
+
+        private Leaf editable(Leaf leaf) {
+            return edit != null && leaf.edit == edit ? leaf : new Leaf(leaf, edit);
+        }
+
+        Todo get(int id) {
+            return new TodoTrie(root, shift).get(id);
+        }
+
+        // Rend modifiable le chemin jusqu'à la feuille de l'id (en le créant au besoin) et y ajuste les compteurs
+        private Leaf editPath(int id, int countDelta, int completedDelta) {
+            if (shift == 0) {
+                Leaf leaf = editable((Leaf) root);
+                root = leaf;
+                return leaf;
+            }
+            Node node = editable((Node) root);
+            root = node;
+            for (int level = shift; ; level -= BITS) {
+                node.count += countDelta;
+                node.completed += completedDelta;
+                int i = (id >>> level) & MASK;
+                Object child = node.slots[i];
+                if (level == BITS) {
+                    Leaf leaf = child == null ? new Leaf(edit) : editable((Leaf) child);
+                    node.slots[i] = leaf;
+                    return leaf;
+                }
+                Node next = child == null ? new Node(edit) : editable((Node) child);
+                node.slots[i] = next;
+                node = next;
+            }
+        }
+
+        /**
+         * Associe à l'id le titre et l'état du todo (l'objet lui-même n'est pas conservé).
+         */
+        void put(int id, Todo todo) {
+            checkNotFrozen();
+            if (id < 0) {
+                throw new IllegalArgumentException("id négatif : " + id);
+            }
+            if (todo == null) {
+                throw new IllegalArgumentException("todo");
+            }
+            while (!covers(shift, id)) {
+                Node grown = new Node(edit);
+                grown.slots[0] = root;
+                grown.count = count(root);
+                grown.completed = completed(root);
+                root = grown;
+                shift += BITS;
+            }
+            int bit = 1 << (id & MASK);
+            Leaf before = leafOf(root, shift, id);
+            boolean existed = before != null && (before.present & bit) != 0;
+            boolean wasCompleted = before != null && (before.completed & bit) != 0;
+            Leaf leaf = editPath(id, existed ? 0 : 1, (todo.isCompleted() ? 1 : 0) - (wasCompleted ? 1 : 0));
+            int start = skip(leaf.titles, 0, Integer.bitCount(leaf.entries & (bit - 1)));
+            int end = (leaf.entries & bit) != 0 ? skip(leaf.titles, start, 1) : start;
+            leaf.titles = splice(leaf.titles, start, end, encode(todo.getTitle()));
+            leaf.entries |= bit;
+            leaf.present |= bit;
+            leaf.completed = todo.isCompleted() ? leaf.completed | bit : leaf.completed & ~bit;
+        }
+
+        /**
+         * Retire l'id ; renvoie false s'il était absent.
+         */
+        boolean remove(int id) {
+            checkNotFrozen();
+            int bit = 1 << (id & MASK);
+            Leaf before = leafOf(root, shift, id);
+            if (before == null || (before.present & bit) == 0) {
+                return false;
+            }
+            int completedDelta = (before.completed & bit) != 0 ? -1 : 0;
+            if (shift == 0) {
+                Leaf leaf = editable((Leaf) root);
+                root = leaf;
+                tombstone(leaf, bit);
+                return true;
+            }
+            Node node = editable((Node) root);
+            root = node;
+            for (int level = shift; ; level -= BITS) {
+                node.count--;
+                node.completed += completedDelta;
+                int i = (id >>> level) & MASK;
+                Object child = node.slots[i];
+                if (count(child) == 1) {
+                    // La branche ne contenait que ce todo : elle est détachée
+                    node.slots[i] = null;
+                    return true;
+                }
+                if (level == BITS) {
+                    Leaf leaf = editable((Leaf) child);
+                    node.slots[i] = leaf;
+                    tombstone(leaf, bit);
+                    return true;
+                }
+                Node next = editable((Node) child);
+                node.slots[i] = next;
+                node = next;
+            }
+        }
+
+        // Marque l'entrée comme morte ; les titres ne sont réécrits que si les entrées mortes deviennent majoritaires
+        private static void tombstone(Leaf leaf, int bit) {
+            leaf.present &= ~bit;
+            leaf.completed &= ~bit;
+            if (Integer.bitCount(leaf.entries & ~leaf.present) > Integer.bitCount(leaf.present)) {
+                purge(leaf);
+            }
+        }
+
+        // Réécrit les titres de la feuille sans ses entrées mortes
+        private static void purge(Leaf leaf) {
+            byte[] titles = leaf.titles;
+            int[] bounds = new int[WIDTH + 1];
+            int length = 0;
+            int remaining = leaf.entries;
+            for (int n = 0; remaining != 0; n++) {
+                bounds[n + 1] = skip(titles, bounds[n], 1);
+                if ((leaf.present & Integer.lowestOneBit(remaining)) != 0) {
+                    length += bounds[n + 1] - bounds[n];
+                }
+                remaining &= remaining - 1;
+            }
+            byte[] purged = length == 0 ? NO_TITLES : new byte[length];
+            int position = 0;
+            remaining = leaf.entries;
+            for (int n = 0; remaining != 0; n++) {
+                if ((leaf.present & Integer.lowestOneBit(remaining)) != 0) {
+                    System.arraycopy(titles, bounds[n], purged, position, bounds[n + 1] - bounds[n]);
+                    position += bounds[n + 1] - bounds[n];
+                }
+                remaining &= remaining - 1;
+            }
+            leaf.titles = purged;
+            leaf.entries = leaf.present;
+        }
+
+        /**
+         * Renvoie le trie résultant ; l'éditeur ne peut plus servir ensuite.
+         */
+        TodoTrie freeze() {
+            frozen = true;
+            return new TodoTrie(root, shift);
+        }
+    }
+
+    // Entrée d'un titre : longueur + 1 en varint (0 pour null), puis ses octets UTF-8
+    private static byte[] encode(String title) {
+        byte[] utf8 = title == null ? NO_TITLES : title.getBytes(StandardCharsets.UTF_8);
+        int header = title == null ? 0 : utf8.length + 1;
+        int headerLength = 1;
+        for (int rest = header >>> 7; rest != 0; rest >>>= 7) {
+            headerLength++;
+        }
+        byte[] entry = new byte[headerLength + utf8.length];
+        int position = 0;
+        while ((header & ~0x7F) != 0) {
+            entry[position++] = (byte) ((header & 0x7F) | 0x80);
+            header >>>= 7;
+        }
+        entry[position++] = (byte) header;
+        System.arraycopy(utf8, 0, entry, position, utf8.length);
+        return entry;
+    }
+
+    // Nouveau tableau où l'intervalle [start, end) est remplacé par replacement
+    private static byte[] splice(byte[] titles, int start, int end, byte[] replacement) {
+        int length = titles.length - (end - start) + replacement.length;
+        if (length == 0) {
+            return NO_TITLES;
+        }
+        byte[] result = new byte[length];
+        System.arraycopy(titles, 0, result, 0, start);
+        System.arraycopy(replacement, 0, result, start, replacement.length);
+        System.arraycopy(titles, end, result, start + replacement.length, titles.length - end);
+        return result;
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.todo.benchmark;
+
+import com.example.todo.SoapTodolistApplication;
+import com.example.todo.model.Todo;
+import com.example.todo.service.TodoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test de charge HTTP : mêmes lectures par l'endpoint SOAP (CXF) et par l'API REST/JSON, sur une
+ * application démarrée sur un port libre avec le stockage memory. `soapCache` active le cache des
+ * réponses SOAP ; restListNotModified mesure un client qui revalide une liste inchangée (304).
+ *
+ * mvn -Pbenchmark test -Dbenchmark=TodoHttpBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Threads(8)
+@Fork(1)
+public class TodoHttpBenchmark {
+
+    @Param({"1000"})
+    public int size;
+
+    @Param({"false", "true"})
+    public boolean soapCache;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String soapUrl;
+    private String restUrl;
+    private String etag;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = new SpringApplicationBuilder(SoapTodolistApplication.class).run(
+                "--server.port=0", "--todo.repository.type=memory", "--todo.cache.enabled=" + soapCache,
+                "--spring.main.banner-mode=off", "--logging.level.root=WARN");
+        List<Todo> batch = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            batch.add(new Todo(0, "Todo numéro " + i, i % 3 == 0));
+        }
+        context.getBean(TodoService.class).addAll(batch);
+        int port = context.getEnvironment().getProperty("local.server.port", Integer.class);
+        soapUrl = "http://localhost:" + port + "/ws/todo";
+        restUrl = "http://localhost:" + port + "/api/todos";
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        etag = client.send(HttpRequest.newBuilder(URI.create(restUrl)).build(), HttpResponse.BodyHandlers.discarding())
+                .headers().firstValue("ETag").orElseThrow();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private String soap(String operation) throws IOException, InterruptedException {
+        String envelope = "<soapenv:Envelope xmlns:soapenv=\"http://schemas.xmlsoap.org/soap/envelope/\""
+                + " xmlns:tns=\"http://endpoint.todo.example.com/\"><soapenv:Body>" + operation
+                + "</soapenv:Body></soapenv:Envelope>";
+        HttpRequest request = HttpRequest.newBuilder(URI.create(soapUrl))
+                .header("Content-Type", "text/xml;charset=UTF-8")
+                .POST(HttpRequest.BodyPublishers.ofString(envelope))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+    private String rest(String path) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(URI.create(restUrl + path)).build(),
+                HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+    private int randomId() {
+        return ThreadLocalRandom.current().nextInt(size) + 1;
+    }
+
+    @Benchmark
+    public String soapGetAll() throws Exception {
+        return soap("<tns:getAll/>");
+    }
+
+    @Benchmark
+    public String restList() throws Exception {
+        return rest("");
+    }
+
+    @Benchmark
+    public int restListNotModified() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(restUrl)).header("If-None-Match", etag).build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    @Benchmark
+    public String soapGetById() throws Exception {
+        return soap("<tns:getById><id>" + randomId() + "</id></tns:getById>");
+    }
+
+    @Benchmark
+    public String restGetById() throws Exception {
+        return rest("/" + randomId());
+    }
+
+    @Benchmark
+    public String soapGetPage() throws Exception {
+        return soap("<tns:getPage><pageSize>50</pageSize></tns:getPage>");
+    }
+
+    @Benchmark
+    public String restPage() throws Exception {
+        return rest("/page?size=50");
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.todo.benchmark;
+
+import com.example.todo.model.Todo;
+import com.example.todo.repository.InMemoryTodoRepository;
+import com.example.todo.service.TodoService;
+import com.example.todo.service.TodoServiceFixture;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lectures (findAll, findById) concurrentes à un flux continu de mises à jour, sans E/S.
+ *
+ * mvn -Pbenchmark test -Dbenchmark=TodoReadWriteBenchmark
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoReadWriteBenchmark {
+
+    private static final int SIZE = 10_000;
+
+    private TodoService todoService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        todoService = TodoServiceFixture.create(new InMemoryTodoRepository(), 64);
+        for (int i = 0; i < SIZE; i++) {
+            todoService.add(new Todo(0, "Todo numéro " + i, false));
+        }
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public List<Todo> findAll() {
+        return todoService.findAll();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(4)
+    public Todo findById() {
+        return todoService.findById(ThreadLocalRandom.current().nextInt(1, SIZE + 1));
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public String update() {
+        int id = ThreadLocalRandom.current().nextInt(1, SIZE + 1);
+        return todoService.update(new Todo(id, "Todo numéro " + id, ThreadLocalRandom.current().nextBoolean()));
+    }
+}
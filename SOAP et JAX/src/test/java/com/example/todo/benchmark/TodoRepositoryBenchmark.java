@@ -0,0 +1,98 @@
+package com.example.todo.benchmark;
+
+import com.example.todo.model.Todo;
+import com.example.todo.repository.BinaryTodoRepository;
+import com.example.todo.repository.InMemoryTodoRepository;
+import com.example.todo.repository.JdbcTodoRepository;
+import com.example.todo.repository.SegmentedTodoRepository;
+import com.example.todo.repository.TodoRepository;
+import com.example.todo.repository.XmlTodoRepository;
+import com.example.todo.service.TodoService;
+import com.example.todo.service.TodoServiceFixture;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Débit de TodoService selon le moteur de persistance choisi par todo.repository.type.
+ *
+ * mvn -Pbenchmark test -Dbenchmark=TodoRepositoryBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class TodoRepositoryBenchmark {
+
+    private static final int INITIAL_SIZE = 10_000;
+
+    @Param({"xml", "binary", "segmented", "jdbc", "memory"})
+    private String type;
+
+    private Path directory;
+    private TodoService todoService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("todo-bench");
+        TodoRepository repository = switch (type) {
+            case "xml" -> new XmlTodoRepository(directory.resolve("todos.xml"), 60_000, 100_000, 0.25, 2, 64);
+            case "binary" -> new BinaryTodoRepository(directory.resolve("todos.bin"), 60_000, 100_000, 0.25, 2, 64);
+            case "segmented" -> new SegmentedTodoRepository(directory.resolve("todos.manifest"), 4096,
+                    60_000, 100_000, 0.25, 2, 64);
+            case "jdbc" -> new JdbcTodoRepository("jdbc:h2:file:" + directory.resolve("todos")
+                    + ";DB_CLOSE_ON_EXIT=FALSE", "sa", "");
+            default -> new InMemoryTodoRepository();
+        };
+        todoService = TodoServiceFixture.create(repository, 64);
+        for (int i = 0; i < INITIAL_SIZE; i++) {
+            todoService.add(new Todo(0, "Todo numéro " + i, false));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        todoService.shutdown();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public String add() {
+        return todoService.add(new Todo(0, "Nouveau todo", false));
+    }
+
+    @Benchmark
+    public String update() {
+        int id = ThreadLocalRandom.current().nextInt(1, INITIAL_SIZE + 1);
+        return todoService.update(new Todo(id, "Todo modifié " + id, true));
+    }
+
+    @Benchmark
+    public Todo findById() {
+        return todoService.findById(ThreadLocalRandom.current().nextInt(1, INITIAL_SIZE + 1));
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.todo.benchmark;
+
+import com.example.todo.model.Todo;
+import com.example.todo.repository.InMemoryTodoRepository;
+import com.example.todo.service.TodoService;
+import com.example.todo.service.TodoServiceFixture;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latence de searchTodos comparée au filtrage de findAll que faisait le client.
+ *
+ * mvn -Pbenchmark test -Dbenchmark=TodoSearchBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class TodoSearchBenchmark {
+
+    private static final String[] WORDS = {"faire", "les", "courses", "réviser", "spring", "boot", "payer",
+            "loyer", "préparer", "examen", "appeler", "médecin", "ranger", "bureau", "lire", "chapitre"};
+
+    @Param({"1000000"})
+    private int size;
+
+    @Param({"examen", "rev spr", "chapitre 4217"})
+    private String query;
+
+    private TodoService todoService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        todoService = TodoServiceFixture.create(new InMemoryTodoRepository(), 64);
+        Random random = new Random(42);
+        List<Todo> batch = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            batch.add(new Todo(0, WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                    + " " + random.nextInt(10_000), false));
+            if (batch.size() == 10_000) {
+                todoService.addAll(batch);
+                batch = new ArrayList<>();
+            }
+        }
+        todoService.addAll(batch);
+    }
+
+    @Benchmark
+    public List<Todo> searchIndex() {
+        return todoService.search(query, 50);
+    }
+
+    @Benchmark
+    public List<Todo> filterFindAll() {
+        String[] terms = query.split(" ");
+        List<Todo> result = new ArrayList<>();
+        for (Todo todo : todoService.findAll()) {
+            String title = todo.getTitle().toLowerCase();
+            boolean match = true;
+            for (String term : terms) {
+                match &= title.contains(term);
+            }
+            if (match && result.add(todo) && result.size() == 50) {
+                break;
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.todo.benchmark;
+
+import com.example.todo.model.Todo;
+import com.example.todo.model.TodoPage;
+import com.example.todo.model.TodoStats;
+import com.example.todo.repository.InMemoryTodoRepository;
+import com.example.todo.service.TodoService;
+import com.example.todo.service.TodoServiceFixture;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compteurs et pages par état, comparés au comptage sur getAll que faisaient les tableaux de bord.
+ * Un todo sur `rarity` est terminé.
+ *
+ * mvn -Pbenchmark test -Dbenchmark=TodoStatsBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoStatsBenchmark {
+
+    @Param({"1000000"})
+    public int size;
+
+    @Param({"100"})
+    public int rarity;
+
+    private TodoService todoService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        todoService = TodoServiceFixture.create(new InMemoryTodoRepository(), 64);
+        List<Todo> batch = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            batch.add(new Todo(0, "Todo numéro " + i, i % rarity == 0));
+        }
+        todoService.addAll(batch);
+    }
+
+    @Benchmark
+    public long countFromFindAll() {
+        return todoService.findAll().stream().filter(Todo::isCompleted).count();
+    }
+
+    @Benchmark
+    public TodoStats stats() {
+        return todoService.stats();
+    }
+
+    @Benchmark
+    public TodoPage completedPage() {
+        return todoService.findPage(50, null, true);
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.todo.benchmark;
+
+import com.example.todo.model.Todo;
+import com.example.todo.repository.TodoXmlCodec;
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Marshaller;
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlRootElement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût par appel de loadTodos/saveTodos : JAXBContext recréé à chaque appel
+ * (comportement d'origine) contre TodoXmlCodec (lecture/écriture StAX en flux).
+ *
+ * mvn -Pbenchmark test -Dbenchmark=TodoXmlCodecBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class TodoXmlCodecBenchmark {
+
+    @XmlRootElement(name = "todos")
+    public static class TodoListWrapper {
+        private List<Todo> todos;
+
+        public TodoListWrapper() {
+            this.todos = new ArrayList<>();
+        }
+
+        public TodoListWrapper(List<Todo> todos) {
+            this.todos = todos;
+        }
+
+        @XmlElement(name = "todo")
+        public List<Todo> getTodos() {
+            return todos;
+        }
+
+        public void setTodos(List<Todo> todos) {
+            this.todos = todos;
+        }
+    }
+
+    @Param({"10", "10000", "1000000"})
+    private int size;
+
+    private List<Todo> todos;
+    private byte[] xml;
+
+    @Setup(Level.Trial)
+    public void setUp() throws XMLStreamException {
+        todos = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            todos.add(new Todo(i, "Todo numéro " + i, i % 3 == 0));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TodoXmlCodec.write(todos, out);
+        xml = out.toByteArray();
+    }
+
+    @Benchmark
+    public Object loadWithNewContext() throws JAXBException {
+        JAXBContext context = JAXBContext.newInstance(TodoListWrapper.class);
+        return context.createUnmarshaller().unmarshal(new ByteArrayInputStream(xml));
+    }
+
+    @Benchmark
+    public Object loadWithSharedCodec() throws XMLStreamException {
+        return TodoXmlCodec.read(new ByteArrayInputStream(xml));
+    }
+
+    @Benchmark
+    public int saveWithNewContext() throws JAXBException {
+        JAXBContext context = JAXBContext.newInstance(TodoListWrapper.class);
+        Marshaller marshaller = context.createMarshaller();
+        marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(xml.length);
+        marshaller.marshal(new TodoListWrapper(todos), out);
+        return out.size();
+    }
+
+    @Benchmark
+    public int saveWithSharedCodec() throws XMLStreamException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(xml.length);
+        TodoXmlCodec.write(todos, out);
+        return out.size();
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.todo.cache;
+
+import com.example.todo.repository.InMemoryTodoRepository;
+import com.example.todo.service.TodoService;
+import com.example.todo.service.TodoServiceFixture;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TodoResponseCacheFilterTest {
+
+    private TodoService todoService;
+    private TodoResponseCache cache;
+    private TodoResponseCacheFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        todoService = TodoServiceFixture.create(new InMemoryTodoRepository());
+        cache = new TodoResponseCache(4096);
+        filter = new TodoResponseCacheFilter();
+        ReflectionTestUtils.setField(filter, "cache", cache);
+        ReflectionTestUtils.setField(filter, "todoService", todoService);
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "cxfPath", "/ws");
+    }
+
+    @AfterEach
+    void tearDown() {
+        todoService.shutdown();
+    }
+
+    // Requête sans Content-Length, comme un envoi en Transfer-Encoding: chunked
+    private static MockHttpServletRequest chunked(String envelope) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/ws/todo") {
+            @Override
+            public int getContentLength() {
+                return -1;
+            }
+
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        request.setContentType("text/xml;charset=UTF-8");
+        request.setContent(envelope.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private static String envelope(String operation) {
+        return "<soapenv:Envelope xmlns:soapenv=\"http://schemas.xmlsoap.org/soap/envelope/\"><soapenv:Body>"
+                + operation + "</soapenv:Body></soapenv:Envelope>";
+    }
+
+    @Test
+    void testDoFilter_LargeChunkedRequest_ShouldReplayWholeBody() throws Exception {
+        // Arrange
+        String envelope = envelope("<addTodo><title>" + "x".repeat(40_000) + "</title></addTodo>");
+        AtomicReference<String> received = new AtomicReference<>();
+        FilterChain chain = (req, res) ->
+                received.set(new String(req.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+
+        // Act
+        filter.doFilter(chunked(envelope), new MockHttpServletResponse(), chain);
+
+        // Assert
+        assertEquals(envelope, received.get());
+    }
+
+    @Test
+    void testDoFilter_SmallChunkedRead_ShouldBeCached() throws Exception {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+        FilterChain chain = (req, res) -> {
+            calls.incrementAndGet();
+            req.getInputStream().readAllBytes();
+            res.setContentType("text/xml");
+            res.getOutputStream().write("<reponse/>".getBytes(StandardCharsets.UTF_8));
+        };
+        filter.doFilter(chunked(envelope("<getAll/>")), new MockHttpServletResponse(), chain);
+        MockHttpServletResponse second = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(chunked(envelope("<getAll/>")), second, chain);
+
+        // Assert
+        assertEquals(1, calls.get());
+        assertEquals("HIT", second.getHeader("X-Todo-Cache"));
+        assertEquals("<reponse/>", second.getContentAsString());
+    }
+
+    @Test
+    void testDoFilter_ResponseOverEntryLimit_ShouldStreamAndNotCache() throws Exception {
+        // Arrange
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicInteger sentDuringChain = new AtomicInteger();
+        byte[] chunk = "y".repeat(512).getBytes(StandardCharsets.UTF_8);
+        FilterChain chain = (req, res) -> {
+            res.setContentType("text/xml");
+            for (int i = 0; i < 8; i++) {
+                res.getOutputStream().write(chunk);
+            }
+            sentDuringChain.set(response.getContentAsByteArray().length);
+        };
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/ws/todo");
+        request.setContentType("text/xml;charset=UTF-8");
+        request.setContent(envelope("<getAll/>").getBytes(StandardCharsets.UTF_8));
+
+        // Act
+        filter.doFilter(request, response, chain);
+
+        // Assert
+        assertEquals(8 * 512, sentDuringChain.get());
+        assertEquals(8 * 512, response.getContentAsByteArray().length);
+        assertEquals(0, cache.stats().entries());
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.todo.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TodoResponseCacheTest {
+
+    private static TodoResponseCache.Entry entry(long version, int size) {
+        return new TodoResponseCache.Entry(version, "text/xml", null, new byte[size]);
+    }
+
+    @Test
+    void testGet_SameVersion_ShouldHit() {
+        // Arrange
+        TodoResponseCache cache = new TodoResponseCache(10_000);
+        TodoResponseCache.Entry stored = entry(3, 100);
+        cache.put("getAll", stored);
+
+        // Act
+        TodoResponseCache.Entry found = cache.get("getAll", 3);
+
+        // Assert
+        assertSame(stored, found);
+        TodoCacheStats stats = cache.stats();
+        assertEquals(1, stats.hits());
+        assertEquals(0, stats.misses());
+    }
+
+    @Test
+    void testGet_AfterWrite_ShouldInvalidateEntry() {
+        // Arrange
+        TodoResponseCache cache = new TodoResponseCache(10_000);
+        cache.put("getAll", entry(3, 100));
+
+        // Act
+        TodoResponseCache.Entry found = cache.get("getAll", 4);
+
+        // Assert
+        assertNull(found);
+        TodoCacheStats stats = cache.stats();
+        assertEquals(1, stats.invalidations());
+        assertEquals(1, stats.misses());
+        assertEquals(0, stats.entries());
+        assertEquals(0, stats.bytes());
+    }
+
+    @Test
+    void testPut_OverBudget_ShouldEvictLeastRecentlyUsed() {
+        // Arrange
+        TodoResponseCache cache = new TodoResponseCache(1_000);
+        cache.put("a", entry(1, 200));
+        cache.put("b", entry(1, 200));
+        cache.put("c", entry(1, 200));
+        cache.get("a", 1);
+
+        // Act
+        cache.put("d", entry(1, 200));
+        cache.put("e", entry(1, 200));
+
+        // Assert
+        assertNotNull(cache.get("a", 1));
+        assertNull(cache.get("b", 1));
+        assertTrue(cache.stats().bytes() <= 1_000);
+        assertEquals(1, cache.stats().evictions());
+    }
+
+    @Test
+    void testPut_EntryTooLarge_ShouldNotBeStored() {
+        // Arrange
+        TodoResponseCache cache = new TodoResponseCache(1_000);
+
+        // Act
+        cache.put("getAll", entry(1, 400));
+
+        // Assert
+        assertNull(cache.get("getAll", 1));
+        assertEquals(0, cache.stats().stores());
+    }
+}
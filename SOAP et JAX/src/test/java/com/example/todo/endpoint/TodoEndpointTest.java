@@ -0,0 +1,226 @@
+package com.example.todo.endpoint;
+
+import com.example.todo.repository.InMemoryTodoRepository;
+import com.example.todo.repository.TodoMutation;
+import com.example.todo.service.TodoService;
+import com.example.todo.service.TodoServiceFixture;
+import jakarta.xml.ws.EndpointReference;
+import jakarta.xml.ws.WebServiceContext;
+import jakarta.xml.ws.handler.MessageContext;
+import org.apache.cxf.continuations.Continuation;
+import org.apache.cxf.continuations.ContinuationProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.w3c.dom.Element;
+
+import java.security.Principal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TodoEndpointTest {
+
+    private final CountDownLatch appending = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicBoolean interrupted = new AtomicBoolean();
+    private final FakeContinuation continuation = new FakeContinuation();
+
+    private ExecutorService executor;
+    private TodoService todoService;
+    private TodoEndpoint endpoint;
+
+    @BeforeEach
+    void setUp() {
+        // Chaque append reste bloqué jusqu'à release, comme un journal lent
+        InMemoryTodoRepository repository = new InMemoryTodoRepository() {
+            @Override
+            public CompletableFuture<Void> append(List<TodoMutation> mutations) {
+                appending.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    interrupted.set(true);
+                    Thread.currentThread().interrupt();
+                }
+                return super.append(mutations);
+            }
+        };
+        todoService = TodoServiceFixture.create(repository);
+        executor = Executors.newSingleThreadExecutor();
+        endpoint = new TodoEndpoint();
+        ReflectionTestUtils.setField(endpoint, "todoService", todoService);
+        ReflectionTestUtils.setField(endpoint, "todoExecutor", executor);
+        ReflectionTestUtils.setField(endpoint, "context", new FakeContext(continuation));
+        ReflectionTestUtils.setField(endpoint, "asyncTimeoutMs", 1_000L);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        release.countDown();
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+        todoService.shutdown();
+    }
+
+    @Test
+    void testAddTodo_WithContinuation_ShouldSuspendThenReturnResult() throws Exception {
+        // Arrange
+        assertNull(endpoint.addTodo("Faire les courses", false));
+        assertTrue(continuation.isPending());
+        release.countDown();
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!continuation.isResumed() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        // Act : CXF rappelle la méthode une fois la continuation reprise
+        String result = endpoint.addTodo("Faire les courses", false);
+
+        // Assert
+        assertEquals("Todo ajouté avec succès", result);
+        assertEquals(1, todoService.findAll().size());
+    }
+
+    @Test
+    void testAddTodo_AfterTimeout_ShouldReportUnknownOutcomeAndFinishWrite() throws Exception {
+        // Arrange
+        assertNull(endpoint.addTodo("Faire les courses", false));
+        assertTrue(appending.await(5, TimeUnit.SECONDS));
+
+        // Act : le délai expire pendant l'écriture, CXF rappelle la méthode
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> endpoint.addTodo("Faire les courses", false));
+        release.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        // Assert : l'écriture n'a pas été interrompue et elle est appliquée
+        assertTrue(e.getMessage().contains("a pu être appliquée"));
+        assertFalse(interrupted.get());
+        assertEquals(1, todoService.findAll().size());
+    }
+
+    private static final class FakeContinuation implements Continuation {
+
+        private Object object;
+        private boolean isNew = true;
+        private boolean pending;
+        private volatile boolean resumed;
+
+        @Override
+        public boolean suspend(long timeout) {
+            isNew = false;
+            pending = true;
+            return true;
+        }
+
+        @Override
+        public void resume() {
+            pending = false;
+            resumed = true;
+        }
+
+        @Override
+        public void reset() {
+        }
+
+        @Override
+        public boolean isNew() {
+            return isNew;
+        }
+
+        @Override
+        public boolean isPending() {
+            return pending;
+        }
+
+        @Override
+        public boolean isResumed() {
+            return resumed;
+        }
+
+        @Override
+        public boolean isTimeout() {
+            return false;
+        }
+
+        @Override
+        public Object getObject() {
+            return object;
+        }
+
+        @Override
+        public void setObject(Object o) {
+            object = o;
+        }
+
+        @Override
+        public boolean isReadyForWrite() {
+            return true;
+        }
+    }
+
+    private static final class FakeContext implements WebServiceContext {
+
+        private final MessageContextMap messageContext = new MessageContextMap();
+
+        FakeContext(Continuation continuation) {
+            messageContext.put(ContinuationProvider.class.getName(), new ContinuationProvider() {
+                @Override
+                public Continuation getContinuation() {
+                    return continuation;
+                }
+
+                @Override
+                public void complete() {
+                }
+            });
+        }
+
+        @Override
+        public MessageContext getMessageContext() {
+            return messageContext;
+        }
+
+        @Override
+        public Principal getUserPrincipal() {
+            return null;
+        }
+
+        @Override
+        public boolean isUserInRole(String role) {
+            return false;
+        }
+
+        @Override
+        public EndpointReference getEndpointReference(Element... referenceParameters) {
+            return null;
+        }
+
+        @Override
+        public <T extends EndpointReference> T getEndpointReference(Class<T> clazz, Element... referenceParameters) {
+            return null;
+        }
+    }
+
+    private static final class MessageContextMap extends HashMap<String, Object> implements MessageContext {
+
+        @Override
+        public void setScope(String name, Scope scope) {
+        }
+
+        @Override
+        public Scope getScope(String name) {
+            return Scope.APPLICATION;
+        }
+    }
+}
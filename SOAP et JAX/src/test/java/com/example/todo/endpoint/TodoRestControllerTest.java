@@ -0,0 +1,158 @@
+package com.example.todo.endpoint;
+
+import com.example.todo.model.Todo;
+import com.example.todo.repository.InMemoryTodoRepository;
+import com.example.todo.service.TodoService;
+import com.example.todo.service.TodoServiceFixture;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class TodoRestControllerTest {
+
+    private TodoService todoService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        todoService = TodoServiceFixture.create(new InMemoryTodoRepository());
+        TodoRestController controller = new TodoRestController();
+        ReflectionTestUtils.setField(controller, "todoService", todoService);
+        ReflectionTestUtils.setField(controller, "objectMapper", new ObjectMapper());
+        // JSON par défaut, comme dans l'application (Spring Boot place les convertisseurs XML en dernier)
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .defaultRequest(get("/").accept(MediaType.APPLICATION_JSON))
+                .build();
+        todoService.add(new Todo(0, "Faire les courses", false));
+        todoService.add(new Todo(0, "Réviser Spring Boot", true));
+    }
+
+    @AfterEach
+    void tearDown() {
+        todoService.shutdown();
+    }
+
+    @Test
+    void testList_ShouldStreamAllTodosWithVersionETag() throws Exception {
+        // Act
+        MvcResult started = mockMvc.perform(get("/api/todos"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + todoService.version() + "\""))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[1].title").value("Réviser Spring Boot"))
+                .andExpect(jsonPath("$[1].completed").value(true));
+    }
+
+    @Test
+    void testList_WithCurrentETag_ShouldReturn304UntilNextWrite() throws Exception {
+        // Arrange
+        String etag = "\"" + todoService.version() + "\"";
+
+        // Act & Assert
+        mockMvc.perform(get("/api/todos").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/todos/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        todoService.update(new Todo(1, "Faire les courses", true));
+        mockMvc.perform(get("/api/todos/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.completed").value(true));
+    }
+
+    @Test
+    void testChanges_ETagFromOtherSince_ShouldNotReturn304() throws Exception {
+        // Arrange
+        long version = todoService.version();
+        String etag = mockMvc.perform(get("/api/todos/changes").param("since", "0"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/todos/changes").param("since", "0").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/todos/changes").param("since", String.valueOf(version))
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.todos.length()").value(0));
+    }
+
+    @Test
+    void testGet_WithUnknownId_ShouldReturn404() throws Exception {
+        mockMvc.perform(get("/api/todos/42"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testPage_WithBadToken_ShouldReturn400() throws Exception {
+        mockMvc.perform(get("/api/todos/page").param("size", "1").param("token", "pas-un-token"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testPage_ShouldFollowNextToken() throws Exception {
+        // Act
+        MvcResult first = mockMvc.perform(get("/api/todos/page").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.todos[0].id").value(1))
+                .andReturn();
+        String token = JsonPath.read(first.getResponse().getContentAsString(), "$.nextToken");
+
+        // Assert
+        mockMvc.perform(get("/api/todos/page").param("size", "1").param("token", token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.todos[0].id").value(2));
+    }
+
+    @Test
+    void testCreateUpdateDelete_ShouldApplyToStore() throws Exception {
+        // Create
+        mockMvc.perform(post("/api/todos").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Nouveau\",\"completed\":false}"))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(HttpHeaders.LOCATION, "/api/todos/3"))
+                .andExpect(jsonPath("$.id").value(3));
+        assertEquals("Nouveau", todoService.findById(3).getTitle());
+
+        // Update
+        mockMvc.perform(put("/api/todos/3").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Modifié\",\"completed\":true}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(3));
+        assertEquals(new Todo(3, "Modifié", true), todoService.findById(3));
+        mockMvc.perform(put("/api/todos/42").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"x\",\"completed\":false}"))
+                .andExpect(status().isNotFound());
+
+        // Delete
+        mockMvc.perform(delete("/api/todos/3"))
+                .andExpect(status().isNoContent());
+        assertNull(todoService.findById(3));
+        mockMvc.perform(delete("/api/todos/3"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.todo.endpoint;
+
+import com.example.todo.repository.InMemoryTodoRepository;
+import com.example.todo.service.TodoService;
+import com.example.todo.service.TodoServiceFixture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class TodoTransferControllerTest {
+
+    private TodoService todoService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        todoService = TodoServiceFixture.create(new InMemoryTodoRepository());
+        TodoTransferController controller = new TodoTransferController();
+        ReflectionTestUtils.setField(controller, "todoService", todoService);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        todoService.shutdown();
+    }
+
+    @Test
+    void testImport_ShouldAssignConsecutiveIds() throws Exception {
+        // Arrange
+        StringBuilder xml = new StringBuilder("<todos>");
+        for (int i = 0; i < 3_000; i++) {
+            xml.append("<todo><id>7</id><title>importé ").append(i).append("</title><completed>")
+                    .append(i % 2 == 0).append("</completed></todo>");
+        }
+        xml.append("</todos>");
+
+        // Act & Assert
+        mockMvc.perform(post("/todos/import").contentType(MediaType.APPLICATION_XML).content(xml.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(3_000))
+                .andExpect(jsonPath("$.firstId").value(1))
+                .andExpect(jsonPath("$.lastId").value(3_000));
+        assertEquals("importé 2999", todoService.findById(3_000).getTitle());
+        assertTrue(todoService.findById(1).isCompleted());
+    }
+
+    @Test
+    void testImport_WithMissingOrInvalidIds_ShouldIgnoreThem() throws Exception {
+        // Arrange
+        String xml = "<todos><todo><id>-3</id><title>a</title></todo><todo><id>abc</id><title>b</title></todo>"
+                + "<todo><title>c</title></todo></todos>";
+
+        // Act & Assert
+        mockMvc.perform(post("/todos/import").contentType(MediaType.APPLICATION_XML).content(xml))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(3))
+                .andExpect(jsonPath("$.firstId").value(1));
+        assertEquals("c", todoService.findById(3).getTitle());
+    }
+
+    @Test
+    void testImport_WithMalformedDocument_ShouldReturn400AndAddNothing() throws Exception {
+        // Arrange : document tronqué après deux todos valides
+        String xml = "<todos><todo><title>a</title></todo><todo><title>b</title></todo><todo><title>c";
+
+        // Act & Assert
+        mockMvc.perform(post("/todos/import").contentType(MediaType.APPLICATION_XML).content(xml))
+                .andExpect(status().isBadRequest());
+        assertEquals(0, todoService.stats().getTotal());
+        assertTrue(todoService.findAll().isEmpty());
+    }
+}
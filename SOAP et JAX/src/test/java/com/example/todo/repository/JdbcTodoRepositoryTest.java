@@ -0,0 +1,49 @@
+package com.example.todo.repository;
+
+import com.example.todo.model.Todo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JdbcTodoRepositoryTest {
+
+    @TempDir
+    Path tempDir;
+
+    private JdbcTodoRepository newRepository() {
+        return new JdbcTodoRepository("jdbc:h2:file:" + tempDir.resolve("todos") + ";DB_CLOSE_ON_EXIT=FALSE", "sa", "");
+    }
+
+    @Test
+    void testAppend_ShouldBeReloadedOnOpen() {
+        // Arrange
+        JdbcTodoRepository repository = newRepository();
+        repository.open(atCut -> null, mutation -> fail("base vide attendue"));
+
+        // Act
+        repository.append(List.of(
+                TodoMutation.add(new Todo(1, "Faire les courses", false)),
+                TodoMutation.add(new Todo(2, "Réviser Spring Boot", false))));
+        repository.append(List.of(
+                TodoMutation.update(new Todo(2, "Réviser Spring Boot", true)),
+                TodoMutation.delete(1)));
+        repository.close();
+
+        // Assert
+        List<TodoMutation> loaded = new ArrayList<>();
+        JdbcTodoRepository reopened = newRepository();
+        reopened.open(atCut -> null, loaded::add);
+        reopened.close();
+        loaded.sort(Comparator.comparingInt(TodoMutation::id));
+        assertEquals(1, loaded.size());
+        assertEquals(2, loaded.get(0).id());
+        assertTrue(loaded.get(0).completed());
+        assertEquals(TodoMutation.Type.ADD, loaded.get(0).type());
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.todo.repository;
+
+import com.example.todo.model.Todo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentedTodoRepositoryTest {
+
+    @TempDir
+    Path tempDir;
+
+    // État en mémoire tenu par le test à la place de TodoService
+    private final TreeMap<Integer, Todo> todos = new TreeMap<>();
+    // Todos lus par les compactions dans les snapshots
+    private final AtomicInteger visited = new AtomicInteger();
+    private SegmentedTodoRepository repository;
+
+    @AfterEach
+    void tearDown() {
+        repository.close();
+    }
+
+    private SegmentedTodoRepository open(int segmentSize) {
+        todos.clear();
+        SegmentedTodoRepository opened = new SegmentedTodoRepository(tempDir.resolve("todos.manifest"), segmentSize,
+                60_000, 100_000, 0.25, 1, 64);
+        opened.open(atCut -> atCut.getAsBoolean() ? snapshot(new TreeMap<>(todos)) : null, this::apply);
+        return opened;
+    }
+
+    private TodoSnapshot snapshot(TreeMap<Integer, Todo> frozen) {
+        return new TodoSnapshot() {
+            @Override
+            public Iterator<Todo> iterator() {
+                return frozen.values().stream().peek(todo -> visited.incrementAndGet()).iterator();
+            }
+
+            @Override
+            public int size() {
+                return frozen.size();
+            }
+
+            @Override
+            public int maxId() {
+                return frozen.isEmpty() ? 0 : frozen.lastKey();
+            }
+
+            @Override
+            public void forEachFrom(int fromId, Predicate<Todo> visitor) {
+                for (Todo todo : frozen.tailMap(fromId).values()) {
+                    visited.incrementAndGet();
+                    if (!visitor.test(todo)) {
+                        return;
+                    }
+                }
+            }
+        };
+    }
+
+    private void apply(TodoMutation mutation) {
+        if (mutation.type() == TodoMutation.Type.DELETE) {
+            todos.remove(mutation.id());
+        } else {
+            todos.put(mutation.id(), mutation.toTodo());
+        }
+    }
+
+    private void write(TodoMutation mutation) {
+        apply(mutation);
+        repository.append(List.of(mutation)).join();
+    }
+
+    private List<Path> segmentFiles() throws Exception {
+        try (Stream<Path> files = Files.list(tempDir.resolve("todos.manifest.segments"))) {
+            return files.sorted().toList();
+        }
+    }
+
+    @Test
+    void testCompact_ShouldRewriteOnlyDirtySegments() throws Exception {
+        // Arrange
+        repository = open(10);
+        for (int id = 1; id <= 35; id++) {
+            write(TodoMutation.add(new Todo(id, "t" + id, false)));
+        }
+        repository.compact();
+        assertEquals(4, segmentFiles().size());
+        for (Path file : segmentFiles()) {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(0));
+        }
+
+        // Act
+        write(TodoMutation.update(new Todo(12, "t12", true)));
+        repository.compact();
+
+        // Assert
+        List<Path> rewritten = segmentFiles().stream()
+                .filter(file -> {
+                    try {
+                        return Files.getLastModifiedTime(file).toMillis() != 0;
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .toList();
+        assertEquals(List.of("00000001.bin"), rewritten.stream().map(file -> file.getFileName().toString()).toList());
+    }
+
+    @Test
+    void testCompact_ShouldReadOnlyDirtySegmentsFromSnapshot() throws Exception {
+        // Arrange
+        repository = open(10);
+        for (int id = 1; id <= 1000; id++) {
+            write(TodoMutation.add(new Todo(id, "t" + id, false)));
+        }
+        repository.compact();
+        String manifest = Files.readString(tempDir.resolve("todos.manifest"));
+        visited.set(0);
+
+        // Act
+        write(TodoMutation.update(new Todo(512, "t512", true)));
+        write(TodoMutation.delete(513));
+        write(TodoMutation.add(new Todo(1005, "t1005", false)));
+        repository.compact();
+
+        // Assert : segments 51 et 100, plus le premier todo qui suit chacun
+        assertTrue(visited.get() <= 12, "todos lus : " + visited.get());
+        String rewritten = Files.readString(tempDir.resolve("todos.manifest"));
+        assertEquals(manifest.replace("\n51 10\n", "\n51 9\n").replace("\n100 1\n", "\n100 2\n"), rewritten);
+        repository.close();
+        repository = open(10);
+        assertEquals(1000, todos.size());
+        assertTrue(todos.get(512).isCompleted());
+        assertFalse(todos.containsKey(513));
+    }
+
+    @Test
+    void testOpen_ShouldReloadSegmentsAndDropEmptiedOnes() throws Exception {
+        // Arrange
+        repository = open(10);
+        for (int id = 1; id <= 25; id++) {
+            write(TodoMutation.add(new Todo(id, "t" + id, id % 2 == 0)));
+        }
+        repository.compact();
+        for (int id = 10; id < 20; id++) {
+            write(TodoMutation.delete(id));
+        }
+        write(TodoMutation.update(new Todo(3, "Réviser Spring Boot", true)));
+
+        // Act
+        repository.close();
+        repository = open(64);
+
+        // Assert
+        assertEquals(15, todos.size());
+        assertEquals("Réviser Spring Boot", todos.get(3).getTitle());
+        assertTrue(todos.get(3).isCompleted());
+        assertFalse(todos.containsKey(15));
+        assertEquals(2, segmentFiles().size());
+        assertTrue(Files.readString(tempDir.resolve("todos.manifest")).startsWith("segment-size=10"));
+    }
+}
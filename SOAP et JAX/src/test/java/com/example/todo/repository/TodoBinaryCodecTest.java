@@ -0,0 +1,75 @@
+package com.example.todo.repository;
+
+import com.example.todo.model.Todo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TodoBinaryCodecTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testWriteThenRead_ShouldRoundTrip() throws Exception {
+        // Arrange
+        List<Todo> todos = new ArrayList<>();
+        for (int i = 1; i <= 20_000; i++) {
+            todos.add(new Todo(i, i % 7 == 0 ? null : "Réviser Spring Boot " + i, i % 3 == 0));
+        }
+        todos.add(new Todo(20_001, "x".repeat(100_000), true));
+        Path file = tempDir.resolve("todos.bin");
+
+        // Act
+        TodoBinaryCodec.write(todos, file);
+        List<Todo> read = new ArrayList<>();
+        int count = TodoBinaryCodec.read(file, read::add);
+
+        // Assert
+        assertEquals(todos.size(), count);
+        for (int i = 0; i < todos.size(); i++) {
+            assertEquals(todos.get(i).getId(), read.get(i).getId());
+            assertEquals(todos.get(i).getTitle(), read.get(i).getTitle());
+            assertEquals(todos.get(i).isCompleted(), read.get(i).isCompleted());
+        }
+    }
+
+    @Test
+    void testRead_WithXmlFile_ShouldFail() throws Exception {
+        Path file = tempDir.resolve("todos.xml");
+        Files.writeString(file, "<?xml version=\"1.0\"?><todos/>");
+
+        assertThrows(IOException.class, () -> TodoBinaryCodec.read(file, todo -> { }));
+    }
+
+    @Test
+    void testConverter_ShouldImportAndExportXml() throws Exception {
+        // Arrange
+        Path xml = tempDir.resolve("todos.xml");
+        Files.writeString(xml, """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <todos>
+                    <todo><completed>true</completed><id>3</id><title>Faire les courses</title></todo>
+                </todos>
+                """);
+        Path binary = tempDir.resolve("todos.bin");
+        Path exported = tempDir.resolve("export.xml");
+
+        // Act
+        TodoSnapshotConverter.xmlToBinary(xml, binary);
+        TodoSnapshotConverter.binaryToXml(binary, exported);
+
+        // Assert
+        List<Todo> todos = new ArrayList<>();
+        TodoBinaryCodec.read(binary, todos::add);
+        assertEquals(3, todos.get(0).getId());
+        assertTrue(Files.readString(exported).contains("<title>Faire les courses</title>"));
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.todo.repository;
+
+import com.example.todo.model.Todo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TodoJournalTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testAppend_WhenDurable_ShouldBeOnDisk() throws Exception {
+        // Arrange
+        Path file = tempDir.resolve("todos.xml.journal");
+        TodoJournal journal = new TodoJournal(file, 60_000, 1);
+        journal.open(mutation -> fail("journal vide attendu"));
+
+        // Act : un groupe d'une seule entrée est écrit sans attendre la fenêtre
+        journal.append(List.of(TodoMutation.add(new Todo(1, "Faire les courses", false))))
+                .get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertTrue(Files.size(file) > 0);
+        journal.close();
+    }
+
+    @Test
+    void testConcurrentAppends_ShouldAllBeAcknowledgedAndReplayed() throws Exception {
+        // Arrange
+        Path file = tempDir.resolve("todos.xml.journal");
+        TodoJournal journal = new TodoJournal(file, 5, 16);
+        journal.open(mutation -> fail("journal vide attendu"));
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+
+        // Act
+        List<Future<CompletableFuture<Void>>> futures = new ArrayList<>();
+        for (int i = 1; i <= 1_000; i++) {
+            int id = i;
+            futures.add(executor.submit(() -> journal.append(List.of(TodoMutation.add(new Todo(id, "t" + id, false))))));
+        }
+        for (Future<CompletableFuture<Void>> future : futures) {
+            future.get(5, TimeUnit.SECONDS).get(5, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        journal.close();
+
+        // Assert
+        Set<Integer> replayed = new HashSet<>();
+        TodoJournal reopened = new TodoJournal(file, 5, 16);
+        reopened.open(mutation -> replayed.add(mutation.id()));
+        reopened.close();
+        assertEquals(1_000, replayed.size());
+    }
+
+    @Test
+    void testAppend_AfterClose_ShouldThrow() throws Exception {
+        // Arrange
+        TodoJournal journal = new TodoJournal(tempDir.resolve("todos.xml.journal"), 1, 64);
+        journal.open(mutation -> { });
+        journal.close();
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> journal.append(List.of(TodoMutation.delete(1))));
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.todo.repository;
+
+import com.example.todo.model.Todo;
+import org.junit.jupiter.api.Test;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TodoXmlCodecTest {
+
+    @Test
+    void testRead_WithJaxbGeneratedFile_ShouldReadAllTodos() throws Exception {
+        // Arrange
+        String xml = """
+                <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+                <todos>
+                    <todo>
+                        <completed>true</completed>
+                        <id>5</id>
+                        <title>Réviser Spring Boot</title>
+                    </todo>
+                    <todo>
+                        <id>6</id>
+                        <title>yy &amp; zz</title>
+                        <completed>false</completed>
+                    </todo>
+                </todos>
+                """;
+
+        // Act
+        List<Todo> todos = TodoXmlCodec.read(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+
+        // Assert
+        assertEquals(2, todos.size());
+        assertEquals(5, todos.get(0).getId());
+        assertEquals("Réviser Spring Boot", todos.get(0).getTitle());
+        assertTrue(todos.get(0).isCompleted());
+        assertEquals("yy & zz", todos.get(1).getTitle());
+        assertFalse(todos.get(1).isCompleted());
+    }
+
+    @Test
+    void testRead_WithoutId_ShouldRejectDocument() {
+        // Arrange
+        String xml = "<todos><todo><id>1</id><title>a</title></todo><todo><title>b</title></todo></todos>";
+
+        // Act & Assert
+        assertThrows(XMLStreamException.class,
+                () -> TodoXmlCodec.read(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Test
+    void testWriteThenRead_ShouldRoundTrip() throws Exception {
+        // Arrange
+        List<Todo> todos = List.of(new Todo(1, "a < b", false), new Todo(2, "Faire les courses", true));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        TodoXmlCodec.write(todos, out);
+        List<Todo> read = TodoXmlCodec.read(new ByteArrayInputStream(out.toByteArray()));
+
+        // Assert
+        assertEquals(2, read.size());
+        assertEquals("a < b", read.get(0).getTitle());
+        assertEquals(2, read.get(1).getId());
+        assertTrue(read.get(1).isCompleted());
+    }
+}
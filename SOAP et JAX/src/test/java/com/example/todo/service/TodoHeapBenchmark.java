@@ -0,0 +1,103 @@
+package com.example.todo.service;
+
+import com.example.todo.model.Todo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mémoire retenue par todo : un objet Todo par todo (liste, le minimum pour un store d'objets)
+ * contre les feuilles en colonnes de TodoTrie. Chaque itération construit le store puis affiche
+ * le nombre d'octets par todo mesuré sur le tas après GC ; le score est le temps de construction.
+ * Placé dans ce package car TodoTrie n'en sort pas.
+ *
+ * mvn -Pbenchmark test -Dbenchmark=TodoHeapBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-XX:+UseSerialGC", "-Xms1g", "-Xmx1g"})
+public class TodoHeapBenchmark {
+
+    @Param({"1000000"})
+    public int size;
+
+    @Param({"objects", "columnar"})
+    public String layout;
+
+    // Longueur des titres, en caractères
+    @Param({"12", "24", "48"})
+    public int titleLength;
+
+    private Object retained;
+
+    private String title(int i) {
+        StringBuilder title = new StringBuilder(titleLength).append("Tâche ").append(i).append(' ');
+        while (title.length() < titleLength) {
+            title.append('x');
+        }
+        title.setLength(titleLength);
+        return title.toString();
+    }
+
+    private long before;
+
+    @Setup(Level.Iteration)
+    public void release() throws InterruptedException {
+        retained = null;
+        before = usedHeap();
+    }
+
+    @Benchmark
+    public void build() {
+        if ("objects".equals(layout)) {
+            List<Todo> todos = new ArrayList<>(size);
+            for (int i = 1; i <= size; i++) {
+                todos.add(new Todo(i, title(i), i % 3 == 0));
+            }
+            retained = todos;
+        } else {
+            TodoTrie.Editor editor = TodoTrie.EMPTY.edit();
+            for (int i = 1; i <= size; i++) {
+                editor.put(i, new Todo(i, title(i), i % 3 == 0));
+            }
+            retained = editor.freeze();
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void measure() throws InterruptedException {
+        long after = usedHeap();
+        System.out.printf("%s, titres de %d caractères : %.1f octets par todo%n",
+                layout, titleLength, (after - before) / (double) size);
+    }
+
+    // Tas occupé après GC : minimum de plusieurs mesures espacées, le thread de l'itération
+    // précédente pouvant encore référencer l'ancien store pendant les premières
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+            Thread.sleep(50);
+        }
+        return used;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.todo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TodoSearchIndexTest {
+
+    @Test
+    void testTokenize_ShouldFoldCaseAndAccents() {
+        assertEquals(Set.of("reviser", "spring", "boot", "2"), TodoSearchIndex.tokenize("Réviser SPRING-Boot (2)"));
+    }
+
+    @Test
+    void testSearch_WithPrefixTerms_ShouldReturnIdsMatchingEveryTerm() {
+        // Arrange
+        TodoSearchIndex index = new TodoSearchIndex();
+        index.add(1, "Faire les courses");
+        index.add(2, "Réviser Spring Boot");
+        index.add(3, "Réviser les cours");
+        index.add(4, "Spring Data");
+
+        // Act & Assert
+        assertArrayEquals(new int[]{2, 3}, index.search("rev", 10));
+        assertArrayEquals(new int[]{1, 3}, index.search("cour LES", 10));
+        assertArrayEquals(new int[]{2}, index.search("spring rev", 10));
+        assertArrayEquals(new int[]{2}, index.search("spr", 1));
+        assertArrayEquals(new int[0], index.search("java", 10));
+        assertArrayEquals(new int[0], index.search("  ", 10));
+    }
+
+    @Test
+    void testUpdateAndRemove_ShouldKeepIndexInSync() {
+        // Arrange
+        TodoSearchIndex index = new TodoSearchIndex();
+        index.add(1, "Faire les courses");
+        index.add(2, "Faire le ménage");
+
+        // Act
+        index.update(1, "Faire les courses", "Payer le loyer");
+        index.remove(2, "Faire le ménage");
+
+        // Assert
+        assertArrayEquals(new int[0], index.search("faire", 10));
+        assertArrayEquals(new int[]{1}, index.search("loy", 10));
+        assertArrayEquals(new int[0], index.search("menage", 10));
+    }
+
+    @Test
+    void testSearch_ShouldMatchBruteForceScan() {
+        // Arrange
+        String[] words = {"alpha", "alpine", "beta", "bêtise", "gamma", "gammes", "delta"};
+        TodoSearchIndex index = new TodoSearchIndex();
+        TreeMap<Integer, String> titles = new TreeMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            int id = random.nextInt(5_000);
+            if (titles.containsKey(id) && random.nextBoolean()) {
+                index.remove(id, titles.remove(id));
+                continue;
+            }
+            String title = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)];
+            if (titles.containsKey(id)) {
+                index.update(id, titles.get(id), title);
+            } else {
+                index.add(id, title);
+            }
+            titles.put(id, title);
+        }
+
+        // Act & Assert
+        for (String query : new String[]{"al", "gam bet", "alpine delta", "b"}) {
+            String[] terms = query.split(" ");
+            int[] expected = titles.entrySet().stream()
+                    .filter(e -> IntStream.range(0, terms.length).allMatch(t -> TodoSearchIndex.tokenize(e.getValue())
+                            .stream().anyMatch(w -> w.startsWith(terms[t].toLowerCase(Locale.ROOT)))))
+                    .mapToInt(e -> e.getKey())
+                    .limit(100)
+                    .toArray();
+            assertArrayEquals(expected, index.search(query, 100), query);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.todo.service;
+
+import com.example.todo.model.Todo;
+import com.example.todo.repository.TodoRepository;
+import com.example.todo.repository.XmlTodoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TodoServiceConcurrencyTest {
+
+    private static final int WRITERS = 64;
+    private static final int TODOS_PER_WRITER = 500;
+
+    @TempDir
+    Path tempDir;
+
+    private TodoService todoService;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        todoService = newService();
+        executor = Executors.newFixedThreadPool(WRITERS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        todoService.shutdown();
+    }
+
+    private TodoService newService() {
+        // Compactions fréquentes pour les faire courir en même temps que les écritures
+        TodoRepository repository = new XmlTodoRepository(tempDir.resolve("todos.xml"), 60_000L, 2_000, 0.25, 1L, 64);
+        return TodoServiceFixture.create(repository, 16);
+    }
+
+    @Test
+    void testConcurrentWriters_ShouldNotLoseWritesNorDuplicateIds() throws Exception {
+        // Arrange
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // Act : chaque writer ajoute ses todos, complète les pairs et supprime un todo sur cinq
+        for (int w = 0; w < WRITERS; w++) {
+            int writer = w;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < TODOS_PER_WRITER; i++) {
+                    Todo todo = new Todo(0, "w" + writer + "-" + i, false);
+                    todoService.add(todo);
+                    int id = todo.getId();
+                    if (i % 2 == 0) {
+                        assertEquals("Todo mis à jour avec succès",
+                                todoService.update(new Todo(id, todo.getTitle(), true)));
+                    }
+                    if (i % 5 == 0) {
+                        assertEquals("Todo supprimé avec succès", todoService.delete(id));
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+
+        // Assert
+        assertStoreContent(todoService.findAll());
+
+        todoService.shutdown();
+        todoService = newService();
+        assertStoreContent(todoService.findAll());
+    }
+
+    private void assertStoreContent(List<Todo> todos) {
+        int expectedPerWriter = TODOS_PER_WRITER - TODOS_PER_WRITER / 5;
+        assertEquals(WRITERS * expectedPerWriter, todos.size());
+
+        Set<Integer> ids = new HashSet<>();
+        Set<String> titles = new HashSet<>();
+        for (Todo todo : todos) {
+            assertTrue(ids.add(todo.getId()), "id dupliqué : " + todo.getId());
+            assertTrue(titles.add(todo.getTitle()), "titre dupliqué : " + todo.getTitle());
+            int i = Integer.parseInt(todo.getTitle().substring(todo.getTitle().indexOf('-') + 1));
+            assertNotEquals(0, i % 5, "todo supprimé encore présent : " + todo.getTitle());
+            assertEquals(i % 2 == 0, todo.isCompleted(), "mise à jour perdue : " + todo.getTitle());
+        }
+    }
+}
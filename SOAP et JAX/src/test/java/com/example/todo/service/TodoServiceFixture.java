@@ -0,0 +1,35 @@
+package com.example.todo.service;
+
+import com.example.todo.repository.TodoRepository;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * TodoService hors contexte Spring pour les tests et benchmarks, avec des valeurs de test pour les champs @Value.
+ */
+public final class TodoServiceFixture {
+
+    private TodoServiceFixture() {
+    }
+
+    public static TodoService create(TodoRepository repository) {
+        return create(repository, 8, false);
+    }
+
+    public static TodoService create(TodoRepository repository, int stripeCount) {
+        return create(repository, stripeCount, false);
+    }
+
+    /**
+     * Service initialisé sur repository ; stripeCount doit être une puissance de 2.
+     */
+    public static TodoService create(TodoRepository repository, int stripeCount, boolean watch) {
+        TodoService service = new TodoService();
+        ReflectionTestUtils.setField(service, "repository", repository);
+        ReflectionTestUtils.setField(service, "stripeCount", stripeCount);
+        ReflectionTestUtils.setField(service, "maxPageSize", 1000);
+        ReflectionTestUtils.setField(service, "changeCapacity", 1000);
+        ReflectionTestUtils.setField(service, "watch", watch);
+        service.init();
+        return service;
+    }
+}
@@ -0,0 +1,584 @@
+package com.example.todo.service;
+
+import com.example.todo.model.Todo;
+import com.example.todo.model.TodoChanges;
+import com.example.todo.model.TodoPage;
+import com.example.todo.model.TodoResult;
+import com.example.todo.model.TodoStats;
+import com.example.todo.repository.BinaryTodoRepository;
+import com.example.todo.repository.InMemoryTodoRepository;
+import com.example.todo.repository.TodoMutation;
+import com.example.todo.repository.TodoRepository;
+import com.example.todo.repository.TodoXmlCodec;
+import com.example.todo.repository.XmlTodoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TodoServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path xmlFile;
+    private String storeFormat = "xml";
+    private boolean watch;
+    private TodoService todoService;
+
+    @BeforeEach
+    void setUp() {
+        xmlFile = tempDir.resolve("todos.xml");
+        todoService = newService(60_000, 1_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        todoService.shutdown();
+    }
+
+    private TodoService newService(long compactIntervalMs, int compactThreshold) {
+        TodoRepository repository = "binary".equals(storeFormat)
+                ? new BinaryTodoRepository(xmlFile, compactIntervalMs, compactThreshold, 0.25, 1L, 64)
+                : new XmlTodoRepository(xmlFile, compactIntervalMs, compactThreshold, 0.25, 1L, 64);
+        return newService(repository);
+    }
+
+    private TodoService newService(TodoRepository repository) {
+        return TodoServiceFixture.create(repository, 8, watch);
+    }
+
+    @Test
+    void testAdd_ShouldBeVisibleBeforeCompaction() {
+        // Act
+        todoService.add(new Todo(0, "Faire les courses", false));
+
+        // Assert
+        List<Todo> todos = todoService.findAll();
+        assertEquals(1, todos.size());
+        assertEquals(1, todos.get(0).getId());
+        assertFalse(Files.exists(xmlFile));
+    }
+
+    @Test
+    void testShutdown_ShouldCompactJournalIntoSnapshot() {
+        // Arrange
+        todoService.add(new Todo(0, "Faire les courses", false));
+        todoService.add(new Todo(0, "Réviser Spring Boot", false));
+        todoService.update(new Todo(2, "Réviser Spring Boot", true));
+        todoService.delete(1);
+
+        // Act
+        todoService.shutdown();
+        todoService = newService(60_000, 1_000);
+
+        // Assert
+        List<Todo> todos = todoService.findAll();
+        assertEquals(1, todos.size());
+        assertEquals(2, todos.get(0).getId());
+        assertTrue(todos.get(0).isCompleted());
+        assertTrue(Files.exists(xmlFile));
+    }
+
+    @Test
+    void testInit_WithoutCompaction_ShouldReplayJournal() throws Exception {
+        // Arrange
+        todoService.add(new Todo(0, "Faire les courses", false));
+        todoService.add(new Todo(0, "Réviser Spring Boot", false));
+        todoService.delete(1);
+        Path journal = tempDir.resolve("todos.xml.journal");
+        Path crashed = tempDir.resolve("crashed.journal");
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (Files.size(journal) == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        // Simule un arrêt brutal : le journal est copié avant la compaction de shutdown
+        Files.copy(journal, crashed);
+        todoService.shutdown();
+        Files.deleteIfExists(xmlFile);
+        Files.move(crashed, journal, StandardCopyOption.REPLACE_EXISTING);
+
+        // Act
+        todoService = newService(60_000, 1_000);
+
+        // Assert
+        List<Todo> todos = todoService.findAll();
+        assertEquals(1, todos.size());
+        assertEquals("Réviser Spring Boot", todos.get(0).getTitle());
+    }
+
+    @Test
+    void testMutations_WhenThresholdReached_ShouldCompactInBackground() throws Exception {
+        // Arrange
+        todoService.shutdown();
+        todoService = newService(60_000, 2);
+
+        // Act
+        todoService.add(new Todo(0, "a", false));
+        todoService.add(new Todo(0, "b", false));
+
+        // Assert
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!Files.exists(xmlFile) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(Files.exists(xmlFile));
+    }
+
+    @Test
+    void testDelete_WhenTombstoneRatioReached_ShouldRewriteSnapshotInBackground() throws Exception {
+        // Arrange : snapshot de 8 todos, ratio de 0.25
+        for (int i = 0; i < 8; i++) {
+            todoService.add(new Todo(0, "todo-" + i, false));
+        }
+        todoService.shutdown();
+        todoService = newService(60_000, 1_000);
+        Path journal = tempDir.resolve("todos.xml.journal");
+
+        // Act : une première suppression reste sous le ratio
+        todoService.delete(1);
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (Files.size(journal) == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        // Assert
+        assertTrue(Files.readString(xmlFile).contains("todo-0"));
+
+        // Act : la seconde l'atteint
+        todoService.delete(2);
+
+        // Assert
+        deadline = System.currentTimeMillis() + 5_000;
+        while (Files.readString(xmlFile).contains("todo-1") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        String snapshot = Files.readString(xmlFile);
+        assertFalse(snapshot.contains("todo-0"));
+        assertFalse(snapshot.contains("todo-1"));
+        assertTrue(snapshot.contains("todo-2"));
+        assertEquals(6, todoService.findAll().size());
+    }
+
+    @Test
+    void testExternalEdit_ShouldReplaceStoreKeepJournaledWritesAndSurviveRestart() throws Exception {
+        // Arrange
+        todoService.add(new Todo(0, "Faire les courses", false));
+        todoService.add(new Todo(0, "Réviser Spring Boot", false));
+        todoService.shutdown();
+        watch = true;
+        todoService = newService(60_000, 1_000);
+        todoService.add(new Todo(0, "Journalisé seulement", false));
+        long version = todoService.version();
+
+        // Act : le fichier est réécrit à la main
+        try (OutputStream out = Files.newOutputStream(xmlFile)) {
+            TodoXmlCodec.write(List.of(new Todo(1, "Courses modifiées à la main", true),
+                    new Todo(7, "Ajouté à la main", false)), out);
+        }
+        long deadline = System.currentTimeMillis() + 5_000;
+        // La version change après la publication du nouveau contenu
+        while (todoService.version() == version && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        // Assert : le fichier remplace le store, l'écriture confirmée depuis la compaction est conservée
+        assertEquals(List.of(new Todo(1, "Courses modifiées à la main", true),
+                        new Todo(3, "Journalisé seulement", false), new Todo(7, "Ajouté à la main", false)),
+                todoService.findAll());
+        assertEquals(2, todoService.search("main", 10).size());
+        assertTrue(todoService.search("spring", 10).isEmpty());
+        todoService.add(new Todo(0, "Après rechargement", false));
+        assertEquals("Après rechargement", todoService.findById(8).getTitle());
+
+        todoService.shutdown();
+        todoService = newService(60_000, 1_000);
+        assertEquals(List.of(1, 3, 7, 8), todoService.findAll().stream().map(Todo::getId).toList());
+    }
+
+    @Test
+    void testExternalEdit_AfterCompaction_ShouldKeepAcknowledgedWrites() throws Exception {
+        // Arrange : la troisième écriture déclenche une compaction, la quatrième reste dans le journal
+        todoService.shutdown();
+        Files.deleteIfExists(xmlFile);
+        watch = true;
+        todoService = newService(60_000, 3);
+        for (int i = 1; i <= 3; i++) {
+            todoService.add(new Todo(0, "Todo " + i, false));
+        }
+        // La compaction est terminée quand le snapshot est écrit et le journal tourné supprimé
+        Path rotated = tempDir.resolve("todos.xml.journal.old");
+        long deadline = System.currentTimeMillis() + 5_000;
+        while ((!Files.exists(xmlFile) || !Files.readString(xmlFile).contains("Todo 3") || Files.exists(rotated))
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        todoService.add(new Todo(0, "Todo 4", false));
+        todoService.update(new Todo(2, "Todo 2 terminé", true));
+        long version = todoService.version();
+
+        // Act
+        try (OutputStream out = Files.newOutputStream(xmlFile)) {
+            TodoXmlCodec.write(List.of(new Todo(1, "Modifié à la main", true), new Todo(2, "Todo 2", false),
+                    new Todo(3, "Todo 3", false)), out);
+        }
+        deadline = System.currentTimeMillis() + 5_000;
+        while (todoService.version() == version && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        // Assert : l'ajout et la modification journalisés s'appliquent par-dessus le fichier
+        List<Todo> expected = List.of(new Todo(1, "Modifié à la main", true), new Todo(2, "Todo 2 terminé", true),
+                new Todo(3, "Todo 3", false), new Todo(4, "Todo 4", false));
+        assertEquals(expected, todoService.findAll());
+        todoService.shutdown();
+        watch = false;
+        todoService = newService(60_000, 1_000);
+        assertEquals(expected, todoService.findAll());
+    }
+
+    @Test
+    void testExternalEdit_AfterInvalidEdit_ShouldKeepStoreAndApplyNextEdit() throws Exception {
+        // Arrange
+        todoService.add(new Todo(0, "Faire les courses", false));
+        todoService.shutdown();
+        watch = true;
+        todoService = newService(60_000, 1_000);
+        long version = todoService.version();
+
+        // Act : un id illisible, puis un id négatif, puis un fichier correct
+        Files.writeString(xmlFile, "<todos><todo><id>abc</id><title>x</title></todo></todos>");
+        Thread.sleep(600);
+        Files.writeString(xmlFile, "<todos><todo><id>-3</id><title>x</title></todo></todos>");
+        Thread.sleep(600);
+        assertEquals(version, todoService.version());
+        assertEquals("Faire les courses", todoService.findById(1).getTitle());
+        try (OutputStream out = Files.newOutputStream(xmlFile)) {
+            TodoXmlCodec.write(List.of(new Todo(4, "Corrigé à la main", false)), out);
+        }
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (todoService.version() == version && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        // Assert
+        assertEquals(List.of(new Todo(4, "Corrigé à la main", false)), todoService.findAll());
+    }
+
+    @Test
+    void testWrites_WhenJournalFails_ShouldRollBackInMemory() {
+        // Arrange : repository dont les écritures échouent à la demande
+        boolean[] failing = {false};
+        todoService.shutdown();
+        todoService = newService(new InMemoryTodoRepository() {
+            @Override
+            public CompletableFuture<Void> append(List<TodoMutation> mutations) {
+                return failing[0] ? CompletableFuture.failedFuture(new IOException("disque plein"))
+                        : super.append(mutations);
+            }
+        });
+        todoService.add(new Todo(0, "Faire les courses", false));
+        todoService.add(new Todo(0, "Réviser Spring Boot", false));
+        long version = todoService.version();
+        failing[0] = true;
+
+        // Act
+        assertThrows(IllegalStateException.class, () -> todoService.add(new Todo(0, "Perdu", false)));
+        assertThrows(IllegalStateException.class, () -> todoService.update(new Todo(1, "Perdu aussi", true)));
+        assertThrows(IllegalStateException.class, () -> todoService.delete(2));
+        assertThrows(IllegalStateException.class, () -> todoService.importAll(List.of(new Todo(0, "Importé", false))));
+
+        // Assert : l'état d'avant, et une version qui a changé pour invalider les lectures en cache
+        assertEquals(List.of(new Todo(1, "Faire les courses", false), new Todo(2, "Réviser Spring Boot", false)),
+                todoService.findAll());
+        assertTrue(todoService.search("perdu", 10).isEmpty());
+        assertEquals(1, todoService.search("spring", 10).size());
+        assertTrue(todoService.version() > version);
+        failing[0] = false;
+        todoService.add(new Todo(0, "Après la panne", false));
+        assertEquals(3, todoService.stats().getTotal());
+    }
+
+    @Test
+    void testBindMetrics_ShouldTimeSnapshotAndJournalIo() {
+        // Arrange
+        todoService.add(new Todo(0, "Faire les courses", false));
+        todoService.shutdown();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        XmlTodoRepository repository = new XmlTodoRepository(xmlFile, 60_000, 1_000, 0.25, 1L, 64);
+        repository.bindMetrics(registry);
+
+        // Act
+        todoService = newService(repository);
+        todoService.add(new Todo(0, "Réviser Spring Boot", false));
+        todoService.shutdown();
+
+        // Assert
+        assertEquals(1, registry.get("todo.store.snapshot.read").timer().count());
+        assertEquals(1, registry.get("todo.store.snapshot.write").timer().count());
+        assertEquals(1, registry.get("todo.journal.write").timer().count());
+        assertEquals(1, registry.get("todo.store.fsync").tag("file", "journal").timer().count());
+        assertEquals(1, registry.get("todo.store.fsync").tag("file", "snapshot").timer().count());
+        assertTrue(registry.get("todo.store.file.size").tag("file", "snapshot").gauge().value() > 0);
+    }
+
+    @Test
+    void testUpdateAndDelete_WithUnknownId_ShouldReturnNotFound() {
+        assertEquals("Todo non trouvé", todoService.update(new Todo(42, "x", false)));
+        assertEquals("Non trouvé", todoService.delete(42));
+        assertNull(todoService.findById(42));
+    }
+
+    @Test
+    void testBatchOperations_ShouldReturnPerItemResultsAndSurviveRestart() {
+        // Arrange
+        List<TodoResult> added = todoService.addAll(new ArrayList<>(List.of(
+                new Todo(0, "a", false), new Todo(0, "b", false), new Todo(0, "c", false))));
+
+        // Act
+        List<TodoResult> updated = todoService.updateAll(List.of(new Todo(2, "b", true), new Todo(42, "x", true)));
+        List<TodoResult> deleted = todoService.deleteAll(List.of(1, 42));
+
+        // Assert
+        assertEquals(List.of(1, 2, 3), added.stream().map(TodoResult::getId).toList());
+        assertTrue(updated.get(0).isSuccess());
+        assertFalse(updated.get(1).isSuccess());
+        assertEquals("Todo non trouvé", updated.get(1).getMessage());
+        assertTrue(deleted.get(0).isSuccess());
+        assertEquals("Non trouvé", deleted.get(1).getMessage());
+
+        todoService.shutdown();
+        todoService = newService(60_000, 1_000);
+        List<Todo> todos = todoService.findAll();
+        assertEquals(List.of(2, 3), todos.stream().map(Todo::getId).toList());
+        assertTrue(todos.get(0).isCompleted());
+    }
+
+    @Test
+    void testImportAll_ShouldAssignConsecutiveIdsAndSurviveRestart() {
+        // Arrange
+        todoService.add(new Todo(0, "existant", false));
+        List<Todo> imported = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            imported.add(new Todo(42, "importé " + i, i % 2 == 0));
+        }
+
+        // Act
+        int count = todoService.importAll(imported);
+        todoService.shutdown();
+        todoService = newService(60_000, 1_000);
+
+        // Assert
+        assertEquals(5_000, count);
+        assertEquals(5_001, todoService.stats().getTotal());
+        assertEquals("importé 0", todoService.findById(2).getTitle());
+        assertEquals("importé 4999", todoService.findById(5_001).getTitle());
+        List<Integer> ids = new ArrayList<>();
+        todoService.iterateAll().forEach(todo -> ids.add(todo.getId()));
+        assertEquals(5_001, ids.size());
+        assertEquals(ids.stream().sorted().toList(), ids);
+    }
+
+    @Test
+    void testViewAll_ShouldBeReadOnlyAndIgnoreLaterWrites() {
+        // Arrange
+        todoService.add(new Todo(0, "Faire les courses", false));
+        todoService.add(new Todo(0, "Réviser Spring Boot", true));
+
+        // Act
+        List<Todo> view = todoService.viewAll();
+        todoService.add(new Todo(0, "Après la vue", false));
+        todoService.delete(1);
+
+        // Assert
+        assertEquals(2, view.size());
+        assertEquals(List.of(new Todo(1, "Faire les courses", false), new Todo(2, "Réviser Spring Boot", true)),
+                new ArrayList<>(view));
+        assertEquals("Réviser Spring Boot", view.get(1).getTitle());
+        assertThrows(IndexOutOfBoundsException.class, () -> view.get(2));
+        assertThrows(UnsupportedOperationException.class, () -> view.add(new Todo(9, "x", false)));
+    }
+
+    @Test
+    void testFindPage_ShouldWalkAllTodosInIdOrder() {
+        // Arrange
+        List<Todo> batch = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            batch.add(new Todo(0, "t" + i, i % 2 == 0));
+        }
+        todoService.addAll(batch);
+        todoService.delete(3);
+
+        // Act
+        List<Integer> ids = new ArrayList<>();
+        String token = null;
+        int pages = 0;
+        do {
+            TodoPage page = todoService.findPage(10, token, null);
+            page.getTodos().forEach(todo -> ids.add(todo.getId()));
+            token = page.getNextToken();
+            pages++;
+        } while (token != null);
+
+        // Assert
+        assertEquals(24, ids.size());
+        assertFalse(ids.contains(3));
+        assertEquals(ids.stream().sorted().toList(), ids);
+        assertEquals(3, pages);
+    }
+
+    @Test
+    void testFindPage_WithCompletedFilter_ShouldReturnOnlyMatchingTodos() {
+        // Arrange
+        List<Todo> batch = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            batch.add(new Todo(0, "t" + i, i < 3));
+        }
+        todoService.addAll(batch);
+
+        // Act
+        TodoPage page = todoService.findPage(50, null, true);
+
+        // Assert
+        assertEquals(List.of(1, 2, 3), page.getTodos().stream().map(Todo::getId).toList());
+        assertNull(page.getNextToken());
+    }
+
+    @Test
+    void testStats_ShouldFollowMutationsAndSurviveRestart() {
+        // Arrange
+        List<Todo> batch = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            batch.add(new Todo(0, "t" + i, i < 4));
+        }
+        todoService.addAll(batch);
+
+        // Act
+        todoService.update(new Todo(5, "t4", true));
+        todoService.update(new Todo(1, "t0", false));
+        todoService.delete(2);
+        todoService.deleteAll(List.of(9, 10));
+        todoService.shutdown();
+        todoService = newService(60_000, 1_000);
+        TodoStats stats = todoService.stats();
+
+        // Assert
+        assertEquals(7, stats.getTotal());
+        assertEquals(3, stats.getCompleted());
+        assertEquals(4, stats.getPending());
+    }
+
+    @Test
+    void testFindPage_WithRareStatus_ShouldFillPagesAcrossTheStore() {
+        // Arrange
+        List<Todo> batch = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            batch.add(new Todo(0, "t" + i, i % 1_000 == 0));
+        }
+        todoService.addAll(batch);
+
+        // Act
+        TodoPage first = todoService.findPage(3, null, true);
+        TodoPage second = todoService.findPage(3, first.getNextToken(), true);
+
+        // Assert
+        assertEquals(List.of(1, 1_001, 2_001), first.getTodos().stream().map(Todo::getId).toList());
+        assertEquals(List.of(3_001, 4_001), second.getTodos().stream().map(Todo::getId).toList());
+        assertNull(second.getNextToken());
+    }
+
+    @Test
+    void testFindPage_WithInvalidToken_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> todoService.findPage(10, "pas-un-jeton", null));
+    }
+
+    @Test
+    void testSearch_ShouldFollowUpdatesAndSurviveRestart() {
+        // Arrange
+        todoService.addAll(new ArrayList<>(List.of(new Todo(0, "Faire les courses", false),
+                new Todo(0, "Réviser Spring Boot", false), new Todo(0, "Réviser les cours", false))));
+
+        // Act
+        todoService.update(new Todo(3, "Préparer l'examen", false));
+        todoService.delete(1);
+        todoService.shutdown();
+        todoService = newService(60_000, 1_000);
+
+        // Assert
+        assertEquals(List.of(2), todoService.search("REV", 10).stream().map(Todo::getId).toList());
+        assertEquals(List.of(3), todoService.search("exam prep", 10).stream().map(Todo::getId).toList());
+        assertTrue(todoService.search("courses", 10).isEmpty());
+    }
+
+    @Test
+    void testChangesSince_ShouldReturnLatestStateOfChangedTodos() {
+        // Arrange
+        todoService.add(new Todo(0, "a", false));
+        todoService.add(new Todo(0, "b", false));
+        long version = todoService.changesSince(0).getVersion();
+
+        // Act
+        todoService.update(new Todo(1, "a", true));
+        todoService.update(new Todo(1, "a bis", true));
+        todoService.addAll(new ArrayList<>(List.of(new Todo(0, "c", false))));
+        todoService.delete(2);
+        TodoChanges changes = todoService.changesSince(version);
+
+        // Assert
+        assertFalse(changes.isResync());
+        assertEquals(List.of(1, 3), changes.getTodos().stream().map(Todo::getId).toList());
+        assertEquals("a bis", changes.getTodos().get(0).getTitle());
+        assertEquals(List.of(2), changes.getDeletedIds());
+        assertEquals(version + 4, changes.getVersion());
+        assertTrue(todoService.changesSince(changes.getVersion()).getTodos().isEmpty());
+    }
+
+    @Test
+    void testChangesSince_WhenVersionIsNoLongerKept_ShouldRequestResync() {
+        // Arrange
+        long version = todoService.changesSince(0).getVersion();
+        List<Todo> batch = new ArrayList<>();
+        for (int i = 0; i < 1_001; i++) {
+            batch.add(new Todo(0, "t" + i, false));
+        }
+
+        // Act
+        todoService.addAll(batch);
+
+        // Assert
+        assertTrue(todoService.changesSince(0).isResync());
+        assertTrue(todoService.changesSince(version).isResync());
+        assertTrue(todoService.changesSince(version + 5_000).isResync());
+        assertFalse(todoService.changesSince(version + 1).isResync());
+    }
+
+    @Test
+    void testBinaryFormat_ShouldPersistAcrossRestart() {
+        // Arrange
+        todoService.shutdown();
+        xmlFile = tempDir.resolve("todos.bin");
+        storeFormat = "binary";
+        todoService = newService(60_000, 1_000);
+        todoService.add(new Todo(0, "Réviser Spring Boot", true));
+
+        // Act
+        todoService.shutdown();
+        todoService = newService(60_000, 1_000);
+
+        // Assert
+        assertEquals("Réviser Spring Boot", todoService.findById(1).getTitle());
+        assertTrue(Files.exists(xmlFile));
+    }
+}
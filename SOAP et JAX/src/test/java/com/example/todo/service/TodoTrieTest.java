@@ -0,0 +1,233 @@
+package com.example.todo.service;
+
+import com.example.todo.model.Todo;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TodoTrieTest {
+
+    @Test
+    void testPutGetRemove_ShouldBehaveLikeASortedMap() {
+        // Arrange
+        TodoTrie trie = TodoTrie.EMPTY;
+        TreeMap<Integer, Todo> expected = new TreeMap<>();
+        Random random = new Random(42);
+
+        // Act
+        for (int i = 0; i < 50_000; i++) {
+            int id = random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                expected.remove(id);
+                trie = trie.remove(id);
+            } else {
+                Todo todo = new Todo(id, "t" + i, false);
+                expected.put(id, todo);
+                trie = trie.put(id, todo);
+            }
+        }
+
+        // Assert
+        assertEquals(expected.size(), trie.size());
+        for (int id = 0; id < 5_000; id++) {
+            assertEquals(expected.get(id), trie.get(id));
+        }
+        assertEquals(new ArrayList<>(expected.values()), trie.toList());
+        assertEquals(expected.lastKey(), trie.maxId());
+        assertEquals(0, TodoTrie.EMPTY.maxId());
+    }
+
+    @Test
+    void testPut_ShouldLeavePreviousVersionUnchanged() {
+        // Arrange
+        TodoTrie before = TodoTrie.EMPTY.put(1, new Todo(1, "a", false));
+
+        // Act
+        TodoTrie after = before.put(1, new Todo(1, "b", true)).put(1_000_000, new Todo(1_000_000, "c", false));
+
+        // Assert
+        assertEquals("a", before.get(1).getTitle());
+        assertNull(before.get(1_000_000));
+        assertEquals(1, before.size());
+        assertEquals("b", after.get(1).getTitle());
+        assertEquals(2, after.size());
+        assertEquals(1_000_000, after.maxId());
+        assertEquals(1, after.remove(1_000_000).maxId());
+    }
+
+    @Test
+    void testEditor_ShouldNotAffectPublishedVersion() {
+        // Arrange
+        TodoTrie published = TodoTrie.EMPTY.put(3, new Todo(3, "a", false));
+        TodoTrie.Editor editor = published.edit();
+
+        // Act
+        for (int id = 0; id < 100; id++) {
+            editor.put(id, new Todo(id, "t" + id, false));
+        }
+        editor.remove(3);
+        TodoTrie edited = editor.freeze();
+
+        // Assert
+        assertEquals(1, published.size());
+        assertEquals("a", published.get(3).getTitle());
+        assertEquals(99, edited.size());
+        assertNull(edited.get(3));
+        assertThrows(IllegalStateException.class, () -> editor.put(200, new Todo(200, "x", false)));
+    }
+
+    @Test
+    void testForEachFrom_ShouldVisitIdsInOrderAndStopOnRequest() {
+        // Arrange
+        TodoTrie trie = TodoTrie.EMPTY;
+        for (int id = 0; id < 3_000; id += 7) {
+            trie = trie.put(id, new Todo(id, "t", false));
+        }
+        List<Integer> visited = new ArrayList<>();
+
+        // Act
+        boolean complete = trie.forEachFrom(1_000, todo -> visited.add(todo.getId()) && visited.size() < 5);
+
+        // Assert
+        assertFalse(complete);
+        assertEquals(List.of(1_001, 1_008, 1_015, 1_022, 1_029), visited);
+        assertTrue(trie.forEachFrom(3_000, todo -> false));
+        assertNull(trie.get(-1));
+    }
+
+    @Test
+    void testCompletedCounters_ShouldMatchContentAndDriveFilteredWalk() {
+        // Arrange
+        TodoTrie trie = TodoTrie.EMPTY;
+        TreeMap<Integer, Todo> expected = new TreeMap<>();
+        Random random = new Random(7);
+
+        // Act
+        for (int i = 0; i < 20_000; i++) {
+            int id = random.nextInt(40_000);
+            if (random.nextInt(4) == 0) {
+                expected.remove(id);
+                trie = trie.remove(id);
+            } else {
+                Todo todo = new Todo(id, "t" + i, random.nextInt(10) == 0);
+                expected.put(id, todo);
+                trie = trie.put(id, todo);
+            }
+        }
+        List<Todo> done = new ArrayList<>();
+        List<Todo> pending = new ArrayList<>();
+        trie.forEachFrom(0, true, done::add);
+        trie.forEachFrom(0, false, pending::add);
+
+        // Assert
+        List<Todo> expectedDone = expected.values().stream().filter(Todo::isCompleted).toList();
+        List<Todo> expectedPending = expected.values().stream().filter(todo -> !todo.isCompleted()).toList();
+        assertEquals(expected.size(), trie.size());
+        assertEquals(expectedDone.size(), trie.completedCount());
+        assertEquals(expectedDone, done);
+        assertEquals(expectedPending, pending);
+    }
+
+    @Test
+    void testIterator_ShouldMatchForEachAfterRemovals() {
+        // Arrange
+        TodoTrie trie = TodoTrie.EMPTY;
+        for (int id = 0; id < 70_000; id += 3) {
+            trie = trie.put(id, new Todo(id, "t", false));
+        }
+        for (int id = 1_000; id < 40_000; id += 3) {
+            trie = trie.remove(id);
+        }
+        List<Todo> expected = new ArrayList<>();
+        trie.forEach(expected::add);
+
+        // Act
+        List<Todo> iterated = new ArrayList<>();
+        for (Todo todo : trie) {
+            iterated.add(todo);
+        }
+
+        // Assert
+        assertEquals(expected, iterated);
+        assertFalse(TodoTrie.EMPTY.iterator().hasNext());
+    }
+
+    @Test
+    void testPut_WithNullUnicodeAndLongTitles_ShouldRoundTrip() {
+        // Arrange
+        String longTitle = "é".repeat(300);
+        TodoTrie trie = TodoTrie.EMPTY.put(5, new Todo(5, "court", false))
+                .put(6, new Todo(6, null, true))
+                .put(7, new Todo(7, longTitle, false))
+                .put(8, new Todo(8, "", true))
+                .put(9, new Todo(9, "Réviser 日本語 🎉", false));
+
+        // Act
+        TodoTrie updated = trie.put(6, new Todo(6, "renseigné", false)).remove(7);
+
+        // Assert
+        assertEquals(new Todo(6, null, true), trie.get(6));
+        assertEquals(longTitle, trie.get(7).getTitle());
+        assertEquals("", trie.get(8).getTitle());
+        assertEquals("Réviser 日本語 🎉", updated.get(9).getTitle());
+        assertEquals(new Todo(6, "renseigné", false), updated.get(6));
+        assertNull(updated.get(7));
+        assertEquals(List.of(5, 6, 8, 9), updated.toList().stream().map(Todo::getId).toList());
+        assertEquals(1, updated.completedCount());
+    }
+
+    @Test
+    void testGet_ShouldReturnDetachedCopy() {
+        // Arrange
+        TodoTrie trie = TodoTrie.EMPTY.put(1, new Todo(1, "a", false));
+
+        // Act
+        trie.get(1).setCompleted(true);
+
+        // Assert
+        assertFalse(trie.get(1).isCompleted());
+        assertEquals(0, trie.completedCount());
+    }
+
+    @Test
+    void testRemove_ShouldSkipDeadEntriesAndDetachEmptyBranches() {
+        // Arrange
+        TodoTrie trie = TodoTrie.EMPTY;
+        for (int id = 0; id < 64; id++) {
+            trie = trie.put(id, new Todo(id, "titre-" + id, id % 2 == 0));
+        }
+        trie = trie.put(5_000, new Todo(5_000, "isolé", false));
+
+        // Act : quelques suppressions seulement, puis la majorité de la première feuille
+        TodoTrie few = trie.remove(3).remove(10);
+        TodoTrie most = few;
+        for (int id = 0; id < 28; id++) {
+            most = most.remove(id);
+        }
+        TodoTrie reinserted = most.put(3, new Todo(3, "revenu", true)).remove(5_000);
+
+        // Assert
+        assertNull(few.get(3));
+        assertEquals("titre-11", few.get(11).getTitle());
+        assertEquals(63, few.toList().size());
+        assertEquals(List.of(28, 29, 30, 31), most.toList().stream().map(Todo::getId).filter(id -> id < 32).toList());
+        assertEquals(new Todo(29, "titre-29", false), most.get(29));
+        assertEquals(new Todo(3, "revenu", true), reinserted.get(3));
+        assertNull(reinserted.get(5_000));
+        assertEquals(37, reinserted.size());
+        assertEquals(reinserted.toList(), iterate(reinserted));
+        assertEquals(19, reinserted.completedCount());
+        assertEquals(65, trie.size());
+    }
+
+    private static List<Todo> iterate(TodoTrie trie) {
+        List<Todo> todos = new ArrayList<>();
+        trie.iterator().forEachRemaining(todos::add);
+        return todos;
+    }
+}